@@ -0,0 +1,58 @@
+package com.apptware.auth.config;
+
+import com.apptware.auth.models.Group;
+import com.apptware.auth.models.Permission;
+import com.apptware.auth.models.Role;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+@Configuration
+public class CatalogCacheConfig {
+    /**
+     * Second-level cache regions of the permission, role and group catalog. Hibernate is set to fail on a
+     * region missing here, so every cached entity or collection is bounded.
+     */
+    public static final List<String> REGIONS = List.of(
+            Permission.class.getName(),
+            Permission.class.getName() + "##NaturalId",
+            Role.class.getName(),
+            Role.class.getName() + ".permissions",
+            Group.class.getName(),
+            Group.class.getName() + ".permissions");
+
+    /**
+     * A local JCache manager holding one size- and age-bounded Caffeine cache per catalog region
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager catalogCacheManager(
+            @Value("${auth.catalog-cache.maximum-size:10000}") long maximumSize,
+            @Value("${auth.catalog-cache.expire-after-write:1h}") Duration expireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("auth-catalog"), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            // Entries are kept current by Hibernate; expiry only bounds the damage of writes made outside the app
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer catalogCacheProperties(CacheManager catalogCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, catalogCacheManager);
+    }
+}
@@ -0,0 +1,24 @@
+package com.apptware.auth.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class FlywayConfig {
+
+    /**
+     * By default Flyway holds its PostgreSQL migration lock in an open transaction on a separate
+     * connection. CREATE INDEX CONCURRENTLY waits for every open transaction to finish, including
+     * that one, so a non-transactional index migration would wait forever. A session-level lock
+     * serializes migrations just as well without an open transaction.
+     *
+     * @return A customizer switching Flyway to the session-level lock
+     */
+    @Bean
+    public FlywayConfigurationCustomizer sessionLevelMigrationLock() {
+        return configuration -> configuration.configuration(Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+}
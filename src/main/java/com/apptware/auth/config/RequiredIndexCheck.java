@@ -0,0 +1,95 @@
+package com.apptware.auth.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports at startup any index the repository queries depend on that is missing from the database,
+ * and any index left INVALID by an interrupted CREATE INDEX CONCURRENTLY. An index counts as present
+ * when a valid index on the table starts with the required columns in the same order, so a primary
+ * key or a wider index covers a narrower requirement.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RequiredIndexCheck {
+    // Table followed by the leading index columns
+    private static final List<List<String>> REQUIRED_INDEXES = List.of(
+            // Join tables in both orders; the primary key covers one of each pair
+            List.of("user_permissions", "user_id", "permission_id"),
+            List.of("user_permissions", "permission_id", "user_id"),
+            List.of("user_roles", "user_id", "role_id"),
+            List.of("user_roles", "role_id", "user_id"),
+            List.of("user_groups", "user_id", "group_id"),
+            List.of("user_groups", "group_id", "user_id"),
+            List.of("role_permissions", "role_id", "permission_id"),
+            List.of("role_permissions", "permission_id", "role_id"),
+            List.of("group_permissions", "group_id", "permission_id"),
+            List.of("group_permissions", "permission_id", "group_id"),
+            List.of("users", "org_id"),
+            List.of("users", "email"),
+            List.of("users", "reporting_manager_id"),
+            List.of("roles", "org_id", "name"),
+            List.of("groups", "org_id", "name"),
+            List.of("user_closure", "ancestor_id", "descendant_id"),
+            List.of("user_closure", "ancestor_id", "depth", "descendant_id"),
+            List.of("user_closure", "descendant_id", "depth", "ancestor_id"),
+            List.of("user_effective_permissions", "user_id", "permission_id"));
+
+    private static final String INDEX_COLUMNS_QUERY =
+            "SELECT t.relname AS table_name, c.relname AS index_name, i.indisvalid AS valid, " +
+            "ARRAY(SELECT a.attname FROM unnest(i.indkey) WITH ORDINALITY AS k (attnum, ord) " +
+            "JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = k.attnum ORDER BY k.ord) AS columns " +
+            "FROM pg_index i " +
+            "JOIN pg_class t ON t.oid = i.indrelid " +
+            "JOIN pg_class c ON c.oid = i.indexrelid " +
+            "JOIN pg_namespace n ON n.oid = t.relnamespace " +
+            "WHERE n.nspname = current_schema()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkIndexes() {
+        List<IndexColumns> indexes = jdbcTemplate.query(INDEX_COLUMNS_QUERY, (rs, rowNum) -> new IndexColumns(
+                rs.getString("table_name"),
+                rs.getString("index_name"),
+                rs.getBoolean("valid"),
+                List.of((String[]) rs.getArray("columns").getArray())));
+
+        for (IndexColumns index : indexes) {
+            if (!index.valid()) {
+                log.warn("Index {} on {} is INVALID (interrupted concurrent build?); drop it and rerun the migration",
+                        index.name(), index.table());
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (List<String> required : REQUIRED_INDEXES) {
+            String table = required.get(0);
+            List<String> columns = required.subList(1, required.size());
+            boolean covered = indexes.stream().anyMatch(index -> index.valid()
+                    && index.table().equals(table)
+                    && index.columns().size() >= columns.size()
+                    && index.columns().subList(0, columns.size()).equals(columns));
+            if (!covered) {
+                missing.add(table + " (" + String.join(", ", columns) + ")");
+            }
+        }
+
+        if (missing.isEmpty()) {
+            log.info("All {} required indexes are present", REQUIRED_INDEXES.size());
+        } else {
+            log.warn("Missing indexes that repository queries depend on: {}", String.join("; ", missing));
+        }
+    }
+
+    private record IndexColumns(String table, String name, boolean valid, List<String> columns) {
+    }
+}
@@ -13,8 +13,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/groups")
@@ -23,11 +25,26 @@ import java.util.List;
 public class GroupController {
     private final GroupService groupService;
     private final OrganizationService organizationService;
+    private final NdjsonStreamer ndjsonStreamer;
 
+    /**
+     * List groups in ID order, one keyset page at a time (pass the last ID received as {@code after})
+     */
     @GetMapping
-    public List<GroupSummaryDTO> getAllGroups() {
-        List<Group> groups = groupService.findAll();
-        return GroupSummaryDTO.fromEntityList(groups);
+    public List<GroupSummaryDTO> getAllGroups(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        return groupService.findSummariesAfter(after, KeysetPaging.clampLimit(limit)).stream()
+                .map(GroupSummaryDTO::fromSummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Stream all groups as newline-delimited JSON when requested with {@code Accept: application/x-ndjson}
+     */
+    @GetMapping(produces = NdjsonStreamer.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAllGroups() {
+        return ndjsonStreamer.stream(sink -> groupService.streamSummaries(summary -> sink.accept(GroupSummaryDTO.fromSummary(summary))));
     }
 
     @GetMapping("/{id}")
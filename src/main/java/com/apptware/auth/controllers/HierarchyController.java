@@ -0,0 +1,268 @@
+package com.apptware.auth.controllers;
+
+import com.apptware.auth.dto.hierarchy.ClosureConsistencyReportDTO;
+import com.apptware.auth.dto.hierarchy.ClosureRebuildReportDTO;
+import com.apptware.auth.dto.hierarchy.CommonManagerBatchRequestDTO;
+import com.apptware.auth.dto.hierarchy.CommonManagerDTO;
+import com.apptware.auth.dto.hierarchy.HierarchyMemberDTO;
+import com.apptware.auth.dto.hierarchy.LevelHeadcountDTO;
+import com.apptware.auth.dto.hierarchy.ManagerSpanDTO;
+import com.apptware.auth.dto.hierarchy.OrganizationConsistencyResultDTO;
+import com.apptware.auth.dto.hierarchy.OrganizationRebuildResultDTO;
+import com.apptware.auth.dto.hierarchy.RelationshipBatchRequestDTO;
+import com.apptware.auth.dto.hierarchy.RelationshipMatrixDTO;
+import com.apptware.auth.dto.hierarchy.RelationshipRowDTO;
+import com.apptware.auth.dto.hierarchy.ReparentResultDTO;
+import com.apptware.auth.dto.hierarchy.SpanOfControlStatusDTO;
+import com.apptware.auth.dto.hierarchy.UserRelationshipDTO;
+import com.apptware.auth.models.projections.CommonManager;
+import com.apptware.auth.services.ClosureConsistencyService;
+import com.apptware.auth.services.OrganizationService;
+import com.apptware.auth.services.SpanOfControlService;
+import com.apptware.auth.services.UserClosureService;
+import com.apptware.auth.services.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/hierarchy")
+@RequiredArgsConstructor
+public class HierarchyController {
+    private final UserClosureService userClosureService;
+    private final UserService userService;
+    private final OrganizationService organizationService;
+    private final SpanOfControlService spanOfControlService;
+    private final ClosureConsistencyService closureConsistencyService;
+
+    /**
+     * Check if a user is a (transitive) manager of another user
+     */
+    @GetMapping("/users/{managerId}/higher-up-than/{userId}")
+    public boolean isHigherUp(@PathVariable Long managerId, @PathVariable Long userId) {
+        return userClosureService.isUserAHigherUp(managerId, userId);
+    }
+
+    /**
+     * Describe how two users relate in the reporting hierarchy
+     */
+    @GetMapping("/users/{userId}/relationship/{otherUserId}")
+    public Map<String, String> getRelationship(@PathVariable Long userId, @PathVariable Long otherUserId) {
+        return Map.of("relationship", userClosureService.determineRelationship(userId, otherUserId));
+    }
+
+    /**
+     * List a user's subordinates nearest first. Pass the depth and ID of the last subordinate received
+     * as {@code afterDepth} and {@code after} to fetch the next page.
+     */
+    @GetMapping("/users/{userId}/subordinates")
+    public ResponseEntity<List<HierarchyMemberDTO>> getSubordinates(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "2147483647") int maxDepth,
+            @RequestParam(defaultValue = "0") int afterDepth,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        return userService.findById(userId)
+                .map(user -> ResponseEntity.ok(HierarchyMemberDTO.fromMemberList(userClosureService.findSubordinatePage(
+                        userId, maxDepth, afterDepth, after, KeysetPaging.clampLimit(limit)))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * List a user's management chain nearest manager first. Pass the depth of the last manager received
+     * as {@code afterDepth} to fetch the next page.
+     */
+    @GetMapping("/users/{userId}/ancestors")
+    public ResponseEntity<List<HierarchyMemberDTO>> getAncestors(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "2147483647") int maxDepth,
+            @RequestParam(defaultValue = "0") int afterDepth,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        return userService.findById(userId)
+                .map(user -> ResponseEntity.ok(HierarchyMemberDTO.fromMemberList(userClosureService.findAncestorPage(
+                        userId, maxDepth, afterDepth, KeysetPaging.clampLimit(limit)))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get a user's whole management chain up to the top-level user, nearest manager first
+     */
+    @GetMapping("/users/{userId}/management-chain")
+    public ResponseEntity<List<HierarchyMemberDTO>> getManagementChain(@PathVariable Long userId) {
+        return userService.findById(userId)
+                .map(user -> ResponseEntity.ok(HierarchyMemberDTO.fromMemberList(
+                        userClosureService.getManagementChain(userId))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Find the nearest manager shared by two users, e.g. to route an approval involving both
+     */
+    @GetMapping("/users/{userId}/common-manager/{otherUserId}")
+    public ResponseEntity<CommonManagerDTO> getCommonManager(@PathVariable Long userId, @PathVariable Long otherUserId) {
+        return userClosureService.findLowestCommonManager(userId, otherUserId)
+                .map(commonManager -> ResponseEntity.ok(CommonManagerDTO.fromCommonManager(commonManager)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Find the nearest shared manager of many user pairs, in request order.
+     * Pairs without a shared manager are returned with an empty manager.
+     */
+    @PostMapping("/common-managers/batch")
+    public List<CommonManagerDTO> getCommonManagers(@Valid @RequestBody CommonManagerBatchRequestDTO requestDTO) {
+        Map<List<Long>, CommonManager> found = new HashMap<>();
+        for (CommonManager commonManager : userClosureService.findLowestCommonManagers(requestDTO.getPairs())) {
+            found.put(List.of(commonManager.getUserId(), commonManager.getOtherUserId()), commonManager);
+        }
+
+        return requestDTO.getPairs().stream()
+                .map(pair -> {
+                    CommonManager commonManager = found.get(List.of(pair.getUserId(), pair.getOtherUserId()));
+                    return commonManager != null
+                            ? CommonManagerDTO.fromCommonManager(commonManager)
+                            : CommonManagerDTO.none(pair.getUserId(), pair.getOtherUserId());
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolve the pairwise relationships of a set of users, e.g. for the badges on a team page
+     */
+    @PostMapping("/relationships/batch")
+    public RelationshipMatrixDTO getRelationships(@Valid @RequestBody RelationshipBatchRequestDTO requestDTO) {
+        Map<Long, Map<Long, UserRelationshipDTO>> matrix =
+                userClosureService.resolveRelationships(requestDTO.getUserIds());
+        Set<Long> notFoundUserIds = requestDTO.getUserIds().stream()
+                .filter(userId -> !matrix.containsKey(userId))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        return RelationshipMatrixDTO.builder()
+                .rows(matrix.entrySet().stream()
+                        .map(entry -> RelationshipRowDTO.builder()
+                                .userId(entry.getKey())
+                                .relationships(entry.getValue())
+                                .build())
+                        .collect(Collectors.toList()))
+                .notFoundUserIds(notFoundUserIds)
+                .build();
+    }
+
+    /**
+     * Count the users reporting to a user, directly or transitively
+     */
+    @GetMapping("/users/{userId}/subordinates/count")
+    public ResponseEntity<Map<String, Long>> countSubordinates(@PathVariable Long userId) {
+        return userService.findById(userId)
+                .map(user -> ResponseEntity.ok(Map.of("subordinates", userClosureService.countSubordinates(userId))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Move a user, together with everyone reporting to them, below a new manager.
+     * Omit managerId to make the user top-level.
+     */
+    @PutMapping("/users/{userId}/manager")
+    public ResponseEntity<ReparentResultDTO> reparentUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long managerId) {
+        return userService.findById(userId)
+                .map(user -> {
+                    long movedUsers = userClosureService.reparent(userId, managerId);
+                    return ResponseEntity.ok(ReparentResultDTO.builder()
+                            .userId(userId)
+                            .managerId(managerId)
+                            .movedUsers(movedUsers)
+                            .build());
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * List an organization's managers with their direct and total report counts, ordered by manager ID.
+     * Pass the ID of the last manager received as {@code after} to fetch the next page.
+     */
+    @GetMapping("/organizations/{orgId}/span-of-control")
+    public ResponseEntity<List<ManagerSpanDTO>> getSpanOfControl(
+            @PathVariable Long orgId,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        return organizationService.findById(orgId)
+                .map(organization -> ResponseEntity.ok(ManagerSpanDTO.fromSpanList(
+                        spanOfControlService.findManagerSpanPage(orgId, after, KeysetPaging.clampLimit(limit)))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Count the users at each level of an organization's hierarchy
+     */
+    @GetMapping("/organizations/{orgId}/headcount-by-level")
+    public ResponseEntity<List<LevelHeadcountDTO>> getHeadcountByLevel(@PathVariable Long orgId) {
+        return organizationService.findById(orgId)
+                .map(organization -> ResponseEntity.ok(LevelHeadcountDTO.fromHeadcountList(
+                        spanOfControlService.findLevelHeadcounts(orgId))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get the freshness of the span-of-control figures
+     */
+    @GetMapping("/span-of-control/status")
+    public SpanOfControlStatusDTO getSpanOfControlStatus() {
+        return spanOfControlService.getStatus();
+    }
+
+    /**
+     * Refresh the span-of-control figures now instead of waiting for the background refresh
+     */
+    @PostMapping("/span-of-control/refresh")
+    public SpanOfControlStatusDTO refreshSpanOfControl() {
+        return spanOfControlService.refresh();
+    }
+
+    /**
+     * Rebuild the closure rows of every organization from reporting managers, e.g. after an import or repair
+     */
+    @PostMapping("/rebuild")
+    public ClosureRebuildReportDTO rebuildAll() {
+        return userClosureService.rebuildAll();
+    }
+
+    /**
+     * Rebuild the closure rows of one organization from reporting managers
+     */
+    @PostMapping("/organizations/{orgId}/rebuild")
+    public ResponseEntity<OrganizationRebuildResultDTO> rebuildOrganization(@PathVariable Long orgId) {
+        return organizationService.findById(orgId)
+                .map(organization -> ResponseEntity.ok(userClosureService.rebuildOrganization(orgId)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Compare the closure rows of every organization with reporting managers, optionally fixing drifted rows
+     */
+    @PostMapping("/verify")
+    public ClosureConsistencyReportDTO verifyAll(@RequestParam(defaultValue = "false") boolean repair) {
+        return closureConsistencyService.verifyAll(repair);
+    }
+
+    /**
+     * Compare one organization's closure rows with reporting managers, optionally fixing drifted rows
+     */
+    @PostMapping("/organizations/{orgId}/verify")
+    public ResponseEntity<OrganizationConsistencyResultDTO> verifyOrganization(
+            @PathVariable Long orgId,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        return organizationService.findById(orgId)
+                .map(organization -> ResponseEntity.ok(closureConsistencyService.verifyOrganization(orgId, repair)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
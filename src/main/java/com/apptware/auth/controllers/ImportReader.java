@@ -0,0 +1,46 @@
+package com.apptware.auth.controllers;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads bulk import bodies one row at a time, so an upload is never held in memory as a whole
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportReader {
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    private final ObjectMapper objectMapper;
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    /**
+     * Read newline-delimited JSON objects
+     */
+    public <T> MappingIterator<T> readNdjson(InputStream in, Class<T> type) throws IOException {
+        return objectMapper.readerFor(type).readValues(in);
+    }
+
+    /**
+     * Read CSV records; the header row names the properties
+     */
+    public <T> MappingIterator<T> readCsv(InputStream in, Class<T> type) throws IOException {
+        return csvMapper.readerFor(type)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(in);
+    }
+}
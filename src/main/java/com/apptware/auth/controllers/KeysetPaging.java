@@ -0,0 +1,20 @@
+package com.apptware.auth.controllers;
+
+/**
+ * Cursor and page-size handling shared by the keyset-paginated list endpoints.
+ * Clients pass the last ID they received as {@code after} to fetch the next page.
+ */
+final class KeysetPaging {
+    static final String DEFAULT_LIMIT = "100";
+    static final int MAX_LIMIT = 1000;
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * Keep a requested page size between 1 and {@link #MAX_LIMIT}
+     */
+    static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
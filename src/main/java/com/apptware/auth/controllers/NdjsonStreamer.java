@@ -0,0 +1,69 @@
+package com.apptware.auth.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes list endpoint results as newline-delimited JSON while they are read from the database
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonStreamer {
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Build a streaming response. The producer is called on the response thread and pushes each row
+     * to the given sink, which serializes it straight to the output, so the full result is never held in memory.
+     *
+     * @param producer Reads the rows and hands them to the sink, e.g. from a forward-only cursor
+     * @return The streaming response
+     */
+    public ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<Object>> producer) {
+        return stream(producer, false);
+    }
+
+    /**
+     * Build a streaming response, optionally gzip-compressed on the fly ({@code Content-Encoding: gzip})
+     *
+     * @param producer Reads the rows and hands them to the sink, e.g. from a forward-only cursor
+     * @param gzip Compress the stream
+     * @return The streaming response
+     */
+    public ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<Object>> producer, boolean gzip) {
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+            producer.accept(row -> {
+                try {
+                    target.write(objectMapper.writeValueAsBytes(row));
+                    target.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
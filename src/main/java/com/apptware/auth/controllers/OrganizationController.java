@@ -4,6 +4,7 @@ import com.apptware.auth.dto.organization.OrganizationRequestDTO;
 import com.apptware.auth.dto.organization.OrganizationResponseDTO;
 import com.apptware.auth.dto.organization.OrganizationSummaryDTO;
 import com.apptware.auth.models.Organization;
+import com.apptware.auth.services.OrganizationExportService;
 import com.apptware.auth.services.OrganizationService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -12,8 +13,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/organizations")
@@ -21,24 +24,55 @@ import java.util.List;
 
 public class OrganizationController {
     private final OrganizationService organizationService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final OrganizationExportService organizationExportService;
 
+    /**
+     * List organizations in ID order, one keyset page at a time (pass the last ID received as {@code after})
+     */
     @GetMapping
-    public List<OrganizationSummaryDTO> getAllOrganizations() {
-        List<Organization> organizations = organizationService.findAll();
-        return OrganizationSummaryDTO.fromEntityList(organizations);
+    public List<OrganizationSummaryDTO> getAllOrganizations(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        return organizationService.findSummariesAfter(after, KeysetPaging.clampLimit(limit)).stream()
+                .map(OrganizationSummaryDTO::fromSummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Stream all organizations as newline-delimited JSON when requested with {@code Accept: application/x-ndjson}
+     */
+    @GetMapping(produces = NdjsonStreamer.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrganizations() {
+        return ndjsonStreamer.stream(sink -> organizationService.streamSummaries(summary -> sink.accept(OrganizationSummaryDTO.fromSummary(summary))));
+    }
+
+    /**
+     * Export every user of an organization with role names, group names and effective permission IDs
+     * as newline-delimited JSON, gzip-compressed with {@code gzip=true}
+     */
+    @GetMapping(value = "/{id}/export", produces = NdjsonStreamer.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (organizationService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ndjsonStreamer.stream(
+                sink -> organizationExportService.exportUsers(id, sink::accept), gzip);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<OrganizationResponseDTO> getOrganizationById(@PathVariable Long id) {
         return organizationService.findById(id)
-                .map(org -> ResponseEntity.ok(OrganizationResponseDTO.fromEntity(org)))
+                .map(org -> ResponseEntity.ok(toResponseDTO(org)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/name/{name}")
     public ResponseEntity<OrganizationResponseDTO> getOrganizationByName(@PathVariable String name) {
         return organizationService.findByName(name)
-                .map(org -> ResponseEntity.ok(OrganizationResponseDTO.fromEntity(org)))
+                .map(org -> ResponseEntity.ok(toResponseDTO(org)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -49,7 +83,7 @@ public class OrganizationController {
         }
         Organization organization = requestDTO.toEntity();
         Organization savedOrganization = organizationService.save(organization);
-        return ResponseEntity.status(HttpStatus.CREATED).body(OrganizationResponseDTO.fromEntity(savedOrganization));
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponseDTO(savedOrganization));
     }
 
     @PutMapping("/{id}")
@@ -72,7 +106,7 @@ public class OrganizationController {
         
         Organization updatedOrg = requestDTO.updateEntity(existingOrg);
         updatedOrg = organizationService.save(updatedOrg);
-        return ResponseEntity.ok(OrganizationResponseDTO.fromEntity(updatedOrg));
+        return ResponseEntity.ok(toResponseDTO(updatedOrg));
     }
 
     @DeleteMapping("/{id}")
@@ -84,6 +118,14 @@ public class OrganizationController {
         return ResponseEntity.ok().build();
     }
     
+    /**
+     * Build the detail response with aggregate counts instead of loading the organization's collections
+     */
+    private OrganizationResponseDTO toResponseDTO(Organization organization) {
+        return OrganizationResponseDTO.fromEntity(organization,
+                organizationService.findCountsById(organization.getId()).orElse(null));
+    }
+    
     @Data
     @AllArgsConstructor
     static class ErrorResponse {
@@ -1,12 +1,18 @@
 package com.apptware.auth.controllers;
 
+import com.apptware.auth.dto.permission.EffectivePermissionCacheStatsDTO;
 import com.apptware.auth.dto.permission.PermissionAssignmentRequestDTO;
 import com.apptware.auth.dto.permission.PermissionAssignmentResponseDTO;
+import com.apptware.auth.dto.permission.PermissionCheckBatchRequestDTO;
+import com.apptware.auth.dto.permission.PermissionCheckItemDTO;
+import com.apptware.auth.dto.permission.PermissionCheckResultDTO;
 import com.apptware.auth.dto.permission.PermissionResponseDTO;
 import com.apptware.auth.models.Group;
 import com.apptware.auth.models.Permission;
 import com.apptware.auth.models.Role;
 import com.apptware.auth.models.User;
+import com.apptware.auth.models.projections.PermissionHolderCounts;
+import com.apptware.auth.services.EffectivePermissionEngine;
 import com.apptware.auth.services.GroupService;
 import com.apptware.auth.services.PermissionAssignmentService;
 import com.apptware.auth.services.PermissionService;
@@ -19,7 +25,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -32,6 +41,7 @@ public class PermissionAssignmentController {
     private final UserService userService;
     private final RoleService roleService;
     private final GroupService groupService;
+    private final EffectivePermissionEngine effectivePermissionEngine;
 
     /**
      * Get all permissions assigned to a user
@@ -65,6 +75,23 @@ public class PermissionAssignmentController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Get hit/miss/eviction statistics of the effective-permission cache
+     */
+    @GetMapping("/effective-permissions/cache-stats")
+    public EffectivePermissionCacheStatsDTO getEffectivePermissionCacheStats() {
+        return effectivePermissionEngine.getCacheStats();
+    }
+
+    /**
+     * Rebuild the materialized effective permissions of every user from the grant tables
+     */
+    @PostMapping("/effective-permissions/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildEffectivePermissions() {
+        int rows = permissionAssignmentService.rebuildEffectivePermissions();
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+
     /**
      * Assign permissions to a user
      */
@@ -74,22 +101,19 @@ public class PermissionAssignmentController {
             @Valid @RequestBody PermissionAssignmentRequestDTO requestDTO) {
         return userService.findById(userId)
                 .map(user -> {
-                    Set<Permission> permissionsToAssign = new HashSet<>();
-                    Set<PermissionResponseDTO> assignedPermissions = new HashSet<>();
-                    
-                    // Find all permissions by their IDs
-                    for (String permissionId : requestDTO.getPermissionIds()) {
-                        permissionService.findByPermissionId(permissionId).ifPresent(permission -> {
-                            permissionsToAssign.add(permission);
-                            assignedPermissions.add(PermissionResponseDTO.fromEntity(permission));
-                        });
-                    }
+                    // Resolve all requested permission IDs in one query
+                    Set<Permission> permissionsToAssign = new HashSet<>(
+                            permissionService.findAllByPermissionIdIn(requestDTO.getPermissionIds()));
+                    Set<PermissionResponseDTO> assignedPermissions = toResponseDTOs(permissionsToAssign);
+                    Set<String> notFoundPermissionIds =
+                            findNotFoundPermissionIds(requestDTO.getPermissionIds(), permissionsToAssign);
                     
                     if (permissionsToAssign.isEmpty()) {
                         return ResponseEntity.badRequest().body(
                                 PermissionAssignmentResponseDTO.builder()
                                         .entityId(userId)
                                         .entityType("USER")
+                                        .notFoundPermissionIds(notFoundPermissionIds)
                                         .success(false)
                                         .message("No valid permissions found to assign")
                                         .build()
@@ -104,6 +128,7 @@ public class PermissionAssignmentController {
                                     .entityId(updatedUser.getId())
                                     .entityType("USER")
                                     .assignedPermissions(assignedPermissions)
+                                    .notFoundPermissionIds(notFoundPermissionIds)
                                     .success(true)
                                     .message("Permissions assigned successfully")
                                     .build()
@@ -121,22 +146,19 @@ public class PermissionAssignmentController {
             @Valid @RequestBody PermissionAssignmentRequestDTO requestDTO) {
         return userService.findById(userId)
                 .map(user -> {
-                    Set<Permission> permissionsToRemove = new HashSet<>();
-                    Set<PermissionResponseDTO> removedPermissions = new HashSet<>();
-                    
-                    // Find all permissions by their IDs
-                    for (String permissionId : requestDTO.getPermissionIds()) {
-                        permissionService.findByPermissionId(permissionId).ifPresent(permission -> {
-                            permissionsToRemove.add(permission);
-                            removedPermissions.add(PermissionResponseDTO.fromEntity(permission));
-                        });
-                    }
+                    // Resolve all requested permission IDs in one query
+                    Set<Permission> permissionsToRemove = new HashSet<>(
+                            permissionService.findAllByPermissionIdIn(requestDTO.getPermissionIds()));
+                    Set<PermissionResponseDTO> removedPermissions = toResponseDTOs(permissionsToRemove);
+                    Set<String> notFoundPermissionIds =
+                            findNotFoundPermissionIds(requestDTO.getPermissionIds(), permissionsToRemove);
                     
                     if (permissionsToRemove.isEmpty()) {
                         return ResponseEntity.badRequest().body(
                                 PermissionAssignmentResponseDTO.builder()
                                         .entityId(userId)
                                         .entityType("USER")
+                                        .notFoundPermissionIds(notFoundPermissionIds)
                                         .success(false)
                                         .message("No valid permissions found to remove")
                                         .build()
@@ -151,6 +173,7 @@ public class PermissionAssignmentController {
                                     .entityId(updatedUser.getId())
                                     .entityType("USER")
                                     .removedPermissions(removedPermissions)
+                                    .notFoundPermissionIds(notFoundPermissionIds)
                                     .success(true)
                                     .message("Permissions removed successfully")
                                     .build()
@@ -174,6 +197,36 @@ public class PermissionAssignmentController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Check many (user, permission) pairs in one request and return the decision matrix
+     */
+    @PostMapping("/has-permission/batch")
+    public List<PermissionCheckResultDTO> checkUserPermissions(
+            @Valid @RequestBody PermissionCheckBatchRequestDTO requestDTO) {
+        // Merge repeated users so each one is resolved once
+        Map<Long, Set<String>> requested = new LinkedHashMap<>();
+        for (PermissionCheckItemDTO check : requestDTO.getChecks()) {
+            requested.computeIfAbsent(check.getUserId(), userId -> new HashSet<>())
+                    .addAll(check.getPermissionIds());
+        }
+        
+        Map<Long, Set<String>> granted = permissionAssignmentService.findGrantedPermissions(requested);
+        
+        return requested.entrySet().stream()
+                .map(entry -> {
+                    Set<String> userGranted = granted.getOrDefault(entry.getKey(), Set.of());
+                    Map<String, Boolean> decisions = new LinkedHashMap<>();
+                    for (String permissionId : entry.getValue()) {
+                        decisions.put(permissionId, userGranted.contains(permissionId));
+                    }
+                    return PermissionCheckResultDTO.builder()
+                            .userId(entry.getKey())
+                            .decisions(decisions)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
     /**
      * Get all permissions assigned to a role
      */
@@ -199,22 +252,19 @@ public class PermissionAssignmentController {
             @Valid @RequestBody PermissionAssignmentRequestDTO requestDTO) {
         return roleService.findById(roleId)
                 .map(role -> {
-                    Set<Permission> permissionsToAssign = new HashSet<>();
-                    Set<PermissionResponseDTO> assignedPermissions = new HashSet<>();
-                    
-                    // Find all permissions by their IDs
-                    for (String permissionId : requestDTO.getPermissionIds()) {
-                        permissionService.findByPermissionId(permissionId).ifPresent(permission -> {
-                            permissionsToAssign.add(permission);
-                            assignedPermissions.add(PermissionResponseDTO.fromEntity(permission));
-                        });
-                    }
+                    // Resolve all requested permission IDs in one query
+                    Set<Permission> permissionsToAssign = new HashSet<>(
+                            permissionService.findAllByPermissionIdIn(requestDTO.getPermissionIds()));
+                    Set<PermissionResponseDTO> assignedPermissions = toResponseDTOs(permissionsToAssign);
+                    Set<String> notFoundPermissionIds =
+                            findNotFoundPermissionIds(requestDTO.getPermissionIds(), permissionsToAssign);
                     
                     if (permissionsToAssign.isEmpty()) {
                         return ResponseEntity.badRequest().body(
                                 PermissionAssignmentResponseDTO.builder()
                                         .entityId(roleId)
                                         .entityType("ROLE")
+                                        .notFoundPermissionIds(notFoundPermissionIds)
                                         .success(false)
                                         .message("No valid permissions found to assign")
                                         .build()
@@ -229,6 +279,7 @@ public class PermissionAssignmentController {
                                     .entityId(updatedRole.getId())
                                     .entityType("ROLE")
                                     .assignedPermissions(assignedPermissions)
+                                    .notFoundPermissionIds(notFoundPermissionIds)
                                     .success(true)
                                     .message("Permissions assigned successfully")
                                     .build()
@@ -246,22 +297,19 @@ public class PermissionAssignmentController {
             @Valid @RequestBody PermissionAssignmentRequestDTO requestDTO) {
         return roleService.findById(roleId)
                 .map(role -> {
-                    Set<Permission> permissionsToRemove = new HashSet<>();
-                    Set<PermissionResponseDTO> removedPermissions = new HashSet<>();
-                    
-                    // Find all permissions by their IDs
-                    for (String permissionId : requestDTO.getPermissionIds()) {
-                        permissionService.findByPermissionId(permissionId).ifPresent(permission -> {
-                            permissionsToRemove.add(permission);
-                            removedPermissions.add(PermissionResponseDTO.fromEntity(permission));
-                        });
-                    }
+                    // Resolve all requested permission IDs in one query
+                    Set<Permission> permissionsToRemove = new HashSet<>(
+                            permissionService.findAllByPermissionIdIn(requestDTO.getPermissionIds()));
+                    Set<PermissionResponseDTO> removedPermissions = toResponseDTOs(permissionsToRemove);
+                    Set<String> notFoundPermissionIds =
+                            findNotFoundPermissionIds(requestDTO.getPermissionIds(), permissionsToRemove);
                     
                     if (permissionsToRemove.isEmpty()) {
                         return ResponseEntity.badRequest().body(
                                 PermissionAssignmentResponseDTO.builder()
                                         .entityId(roleId)
                                         .entityType("ROLE")
+                                        .notFoundPermissionIds(notFoundPermissionIds)
                                         .success(false)
                                         .message("No valid permissions found to remove")
                                         .build()
@@ -276,6 +324,7 @@ public class PermissionAssignmentController {
                                     .entityId(updatedRole.getId())
                                     .entityType("ROLE")
                                     .removedPermissions(removedPermissions)
+                                    .notFoundPermissionIds(notFoundPermissionIds)
                                     .success(true)
                                     .message("Permissions removed successfully")
                                     .build()
@@ -309,22 +358,19 @@ public class PermissionAssignmentController {
             @Valid @RequestBody PermissionAssignmentRequestDTO requestDTO) {
         return groupService.findById(groupId)
                 .map(group -> {
-                    Set<Permission> permissionsToAssign = new HashSet<>();
-                    Set<PermissionResponseDTO> assignedPermissions = new HashSet<>();
-                    
-                    // Find all permissions by their IDs
-                    for (String permissionId : requestDTO.getPermissionIds()) {
-                        permissionService.findByPermissionId(permissionId).ifPresent(permission -> {
-                            permissionsToAssign.add(permission);
-                            assignedPermissions.add(PermissionResponseDTO.fromEntity(permission));
-                        });
-                    }
+                    // Resolve all requested permission IDs in one query
+                    Set<Permission> permissionsToAssign = new HashSet<>(
+                            permissionService.findAllByPermissionIdIn(requestDTO.getPermissionIds()));
+                    Set<PermissionResponseDTO> assignedPermissions = toResponseDTOs(permissionsToAssign);
+                    Set<String> notFoundPermissionIds =
+                            findNotFoundPermissionIds(requestDTO.getPermissionIds(), permissionsToAssign);
                     
                     if (permissionsToAssign.isEmpty()) {
                         return ResponseEntity.badRequest().body(
                                 PermissionAssignmentResponseDTO.builder()
                                         .entityId(groupId)
                                         .entityType("GROUP")
+                                        .notFoundPermissionIds(notFoundPermissionIds)
                                         .success(false)
                                         .message("No valid permissions found to assign")
                                         .build()
@@ -339,6 +385,7 @@ public class PermissionAssignmentController {
                                     .entityId(updatedGroup.getId())
                                     .entityType("GROUP")
                                     .assignedPermissions(assignedPermissions)
+                                    .notFoundPermissionIds(notFoundPermissionIds)
                                     .success(true)
                                     .message("Permissions assigned successfully")
                                     .build()
@@ -356,22 +403,19 @@ public class PermissionAssignmentController {
             @Valid @RequestBody PermissionAssignmentRequestDTO requestDTO) {
         return groupService.findById(groupId)
                 .map(group -> {
-                    Set<Permission> permissionsToRemove = new HashSet<>();
-                    Set<PermissionResponseDTO> removedPermissions = new HashSet<>();
-                    
-                    // Find all permissions by their IDs
-                    for (String permissionId : requestDTO.getPermissionIds()) {
-                        permissionService.findByPermissionId(permissionId).ifPresent(permission -> {
-                            permissionsToRemove.add(permission);
-                            removedPermissions.add(PermissionResponseDTO.fromEntity(permission));
-                        });
-                    }
+                    // Resolve all requested permission IDs in one query
+                    Set<Permission> permissionsToRemove = new HashSet<>(
+                            permissionService.findAllByPermissionIdIn(requestDTO.getPermissionIds()));
+                    Set<PermissionResponseDTO> removedPermissions = toResponseDTOs(permissionsToRemove);
+                    Set<String> notFoundPermissionIds =
+                            findNotFoundPermissionIds(requestDTO.getPermissionIds(), permissionsToRemove);
                     
                     if (permissionsToRemove.isEmpty()) {
                         return ResponseEntity.badRequest().body(
                                 PermissionAssignmentResponseDTO.builder()
                                         .entityId(groupId)
                                         .entityType("GROUP")
+                                        .notFoundPermissionIds(notFoundPermissionIds)
                                         .success(false)
                                         .message("No valid permissions found to remove")
                                         .build()
@@ -386,6 +430,7 @@ public class PermissionAssignmentController {
                                     .entityId(updatedGroup.getId())
                                     .entityType("GROUP")
                                     .removedPermissions(removedPermissions)
+                                    .notFoundPermissionIds(notFoundPermissionIds)
                                     .success(true)
                                     .message("Permissions removed successfully")
                                     .build()
@@ -393,4 +438,24 @@ public class PermissionAssignmentController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Build response DTOs for resolved permissions, counting their holders in one query
+     */
+    private Set<PermissionResponseDTO> toResponseDTOs(Set<Permission> permissions) {
+        Map<Long, PermissionHolderCounts> counts = permissionService.findHolderCounts(
+                permissions.stream().map(Permission::getId).collect(Collectors.toList()));
+        return permissions.stream()
+                .map(permission -> PermissionResponseDTO.fromEntity(permission, counts.get(permission.getId())))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Get the requested permission IDs that did not match any permission
+     */
+    private Set<String> findNotFoundPermissionIds(Set<String> requested, Set<Permission> resolved) {
+        Set<String> notFound = new LinkedHashSet<>(requested);
+        resolved.forEach(permission -> notFound.remove(permission.getPermissionId()));
+        return notFound;
+    }
 }
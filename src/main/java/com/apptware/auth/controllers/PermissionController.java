@@ -1,14 +1,17 @@
 package com.apptware.auth.controllers;
 
+import com.apptware.auth.dto.permission.CacheRegionStatsDTO;
 import com.apptware.auth.dto.permission.PermissionRequestDTO;
 import com.apptware.auth.dto.permission.PermissionResponseDTO;
 import com.apptware.auth.models.Permission;
+import com.apptware.auth.services.CatalogCacheService;
 import com.apptware.auth.services.PermissionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,14 +21,37 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PermissionController {
     private final PermissionService permissionService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final CatalogCacheService catalogCacheService;
 
+    /**
+     * List permissions in ID order, one keyset page at a time (pass the last ID received as {@code after})
+     */
     @GetMapping
-    public List<PermissionResponseDTO> getAllPermissions() {
-        return permissionService.findAll().stream()
-                .map(PermissionResponseDTO::fromEntity)
+    public List<PermissionResponseDTO> getAllPermissions(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        return permissionService.findRowsAfter(after, KeysetPaging.clampLimit(limit)).stream()
+                .map(PermissionResponseDTO::fromRow)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Stream all permissions as newline-delimited JSON when requested with {@code Accept: application/x-ndjson}
+     */
+    @GetMapping(produces = NdjsonStreamer.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAllPermissions() {
+        return ndjsonStreamer.stream(sink -> permissionService.streamRows(row -> sink.accept(PermissionResponseDTO.fromRow(row))));
+    }
+
+    /**
+     * Get hit/miss/put statistics of each second-level cache region of the permission, role and group catalog
+     */
+    @GetMapping("/cache-stats")
+    public List<CacheRegionStatsDTO> getCatalogCacheStats() {
+        return catalogCacheService.getRegionStats();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PermissionResponseDTO> getPermissionById(@PathVariable Long id) {
         return permissionService.findById(id)
@@ -13,8 +13,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/roles")
@@ -23,11 +25,26 @@ import java.util.List;
 public class RoleController {
     private final RoleService roleService;
     private final OrganizationService organizationService;
+    private final NdjsonStreamer ndjsonStreamer;
 
+    /**
+     * List roles in ID order, one keyset page at a time (pass the last ID received as {@code after})
+     */
     @GetMapping
-    public List<RoleSummaryDTO> getAllRoles() {
-        List<Role> roles = roleService.findAll();
-        return RoleSummaryDTO.fromEntityList(roles);
+    public List<RoleSummaryDTO> getAllRoles(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        return roleService.findSummariesAfter(after, KeysetPaging.clampLimit(limit)).stream()
+                .map(RoleSummaryDTO::fromSummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Stream all roles as newline-delimited JSON when requested with {@code Accept: application/x-ndjson}
+     */
+    @GetMapping(produces = NdjsonStreamer.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAllRoles() {
+        return ndjsonStreamer.stream(sink -> roleService.streamSummaries(summary -> sink.accept(RoleSummaryDTO.fromSummary(summary))));
     }
 
     @GetMapping("/{id}")
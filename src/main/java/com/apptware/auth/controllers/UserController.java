@@ -1,14 +1,19 @@
 package com.apptware.auth.controllers;
 
 import com.apptware.auth.dto.user.UserBriefDTO;
+import com.apptware.auth.dto.user.UserImportResultDTO;
+import com.apptware.auth.dto.user.UserImportRowDTO;
 import com.apptware.auth.dto.user.UserRequestDTO;
 import com.apptware.auth.dto.user.UserResponseDTO;
 import com.apptware.auth.dto.user.UserUpdateDTO;
 import com.apptware.auth.models.Organization;
 import com.apptware.auth.models.User;
+import com.apptware.auth.models.projections.UserBrief;
 import com.apptware.auth.services.OrganizationService;
+import com.apptware.auth.services.UserImportService;
 import com.apptware.auth.services.UserService;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,9 +21,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
@@ -26,11 +35,28 @@ import java.util.Optional;
 public class UserController {
     private final UserService userService;
     private final OrganizationService organizationService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final UserImportService userImportService;
+    private final ImportReader importReader;
 
+    /**
+     * List users in ID order, one keyset page at a time (pass the last ID received as {@code after})
+     */
     @GetMapping
-    public List<UserBriefDTO> getAllUsers() {
-        List<User> users = userService.findAll();
-        return UserBriefDTO.fromEntityList(users);
+    public List<UserBriefDTO> getAllUsers(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = KeysetPaging.DEFAULT_LIMIT) int limit) {
+        return userService.findBriefsAfter(after, KeysetPaging.clampLimit(limit)).stream()
+                .map(UserBriefDTO::fromBrief)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Stream all users as newline-delimited JSON when requested with {@code Accept: application/x-ndjson}
+     */
+    @GetMapping(produces = NdjsonStreamer.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ndjsonStreamer.stream(sink -> userService.streamBriefs(brief -> sink.accept(UserBriefDTO.fromBrief(brief))));
     }
 
     @GetMapping("/{id}")
@@ -51,16 +77,53 @@ public class UserController {
     public ResponseEntity<List<UserBriefDTO>> getUsersByOrganization(@PathVariable Long orgId) {
         return organizationService.findById(orgId)
                 .map(organization -> {
-                    List<User> users = userService.findByOrganization(organization);
-                    return ResponseEntity.ok(UserBriefDTO.fromEntityList(users));
+                    List<UserBrief> users = userService.findBriefsByOrganizationId(organization.getId());
+                    return ResponseEntity.ok(UserBriefDTO.fromBriefList(users));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Create many users of an organization from newline-delimited JSON, one user object per line
+     */
+    @PostMapping(value = "/organization/{orgId}/import", consumes = NdjsonStreamer.MEDIA_TYPE)
+    public ResponseEntity<UserImportResultDTO> importUsersFromNdjson(@PathVariable Long orgId, InputStream body)
+            throws IOException {
+        if (organizationService.findById(orgId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try (MappingIterator<UserImportRowDTO> rows = importReader.readNdjson(body, UserImportRowDTO.class)) {
+            return importResponse(userImportService.importUsers(orgId, rows));
+        }
+    }
+
+    /**
+     * Create many users of an organization from CSV with a header row, e.g.
+     * {@code name,email,password,isAdmin,isActive,reportingManagerEmail}
+     */
+    @PostMapping(value = "/organization/{orgId}/import", consumes = ImportReader.CSV_MEDIA_TYPE)
+    public ResponseEntity<UserImportResultDTO> importUsersFromCsv(@PathVariable Long orgId, InputStream body)
+            throws IOException {
+        if (organizationService.findById(orgId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try (MappingIterator<UserImportRowDTO> rows = importReader.readCsv(body, UserImportRowDTO.class)) {
+            return importResponse(userImportService.importUsers(orgId, rows));
+        }
+    }
+
+    /**
+     * The users of an import are committed even when adding them to the hierarchy fails, so the result is
+     * returned either way, but with a server error status when the new users were left without closure rows
+     */
+    private static ResponseEntity<UserImportResultDTO> importResponse(UserImportResultDTO result) {
+        boolean hierarchyFailed = result.getHierarchyError() != null;
+        return ResponseEntity.status(hierarchyFailed ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK).body(result);
+    }
+
     @GetMapping("/admins")
     public List<UserBriefDTO> getAdminUsers() {
-        List<User> adminUsers = userService.findAdminUsers();
-        return UserBriefDTO.fromEntityList(adminUsers);
+        return UserBriefDTO.fromBriefList(userService.findAdminBriefs());
     }
 
     /**
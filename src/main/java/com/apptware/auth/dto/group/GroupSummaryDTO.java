@@ -1,6 +1,7 @@
 package com.apptware.auth.dto.group;
 
 import com.apptware.auth.models.Group;
+import com.apptware.auth.models.projections.GroupSummary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,6 +27,14 @@ public class GroupSummaryDTO {
                 .build();
     }
     
+    public static GroupSummaryDTO fromSummary(GroupSummary summary) {
+        return GroupSummaryDTO.builder()
+                .id(summary.getId())
+                .organizationId(summary.getOrganizationId())
+                .name(summary.getName())
+                .build();
+    }
+    
     public static List<GroupSummaryDTO> fromEntityList(List<Group> groups) {
         return groups.stream()
                 .map(GroupSummaryDTO::fromEntity)
@@ -0,0 +1,48 @@
+package com.apptware.auth.dto.hierarchy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Summary of a closure consistency check across organizations
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClosureConsistencyReportDTO {
+    private int organizations;
+    private int inconsistentOrganizations;
+    private long usersChecked;
+    private long missingRows;
+    private long mismatchedDepthRows;
+    private long extraRows;
+    private long cycleUsers;
+    private long truncatedChains;
+    private long repairedRows;
+    private long elapsedMillis;
+    private List<OrganizationConsistencyResultDTO> results;
+
+    public static ClosureConsistencyReportDTO fromResults(List<OrganizationConsistencyResultDTO> results,
+                                                          long elapsedMillis) {
+        return ClosureConsistencyReportDTO.builder()
+                .organizations(results.size())
+                .inconsistentOrganizations((int) results.stream().filter(result -> !result.isConsistent()).count())
+                .usersChecked(results.stream().mapToLong(OrganizationConsistencyResultDTO::getUsersChecked).sum())
+                .missingRows(results.stream().mapToLong(OrganizationConsistencyResultDTO::getMissingRows).sum())
+                .mismatchedDepthRows(results.stream()
+                        .mapToLong(OrganizationConsistencyResultDTO::getMismatchedDepthRows).sum())
+                .extraRows(results.stream().mapToLong(OrganizationConsistencyResultDTO::getExtraRows).sum())
+                .cycleUsers(results.stream().mapToLong(OrganizationConsistencyResultDTO::getCycleUsers).sum())
+                .truncatedChains(results.stream()
+                        .mapToLong(OrganizationConsistencyResultDTO::getTruncatedChains).sum())
+                .repairedRows(results.stream().mapToLong(OrganizationConsistencyResultDTO::getRepairedRows).sum())
+                .elapsedMillis(elapsedMillis)
+                .results(results)
+                .build();
+    }
+}
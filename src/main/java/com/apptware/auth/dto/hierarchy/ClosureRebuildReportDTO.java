@@ -0,0 +1,36 @@
+package com.apptware.auth.dto.hierarchy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Summary of a closure rebuild across organizations, with throughput for maintenance planning
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClosureRebuildReportDTO {
+    private int organizations;
+    private int failedOrganizations;
+    private long rows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<OrganizationRebuildResultDTO> results;
+
+    public static ClosureRebuildReportDTO fromResults(List<OrganizationRebuildResultDTO> results, long elapsedMillis) {
+        long rows = results.stream().mapToLong(OrganizationRebuildResultDTO::getRows).sum();
+        return ClosureRebuildReportDTO.builder()
+                .organizations(results.size())
+                .failedOrganizations((int) results.stream().filter(result -> !result.isSuccess()).count())
+                .rows(rows)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : rows)
+                .results(results)
+                .build();
+    }
+}
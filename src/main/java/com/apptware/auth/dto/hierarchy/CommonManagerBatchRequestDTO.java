@@ -0,0 +1,25 @@
+package com.apptware.auth.dto.hierarchy;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for finding the nearest shared manager of many user pairs in a single request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommonManagerBatchRequestDTO {
+    @NotEmpty(message = "At least one pair must be provided")
+    @Size(max = 1000, message = "At most 1000 pairs can be sent per request")
+    @Valid
+    private List<UserPairDTO> pairs;
+}
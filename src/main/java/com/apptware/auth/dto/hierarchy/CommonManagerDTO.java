@@ -0,0 +1,44 @@
+package com.apptware.auth.dto.hierarchy;
+
+import com.apptware.auth.models.projections.CommonManager;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nearest manager shared by two users. The manager may be one of the users themselves
+ * when that user manages the other one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommonManagerDTO {
+    private Long userId;
+    private Long otherUserId;
+    private Long managerId;  // null when the users have no manager in common
+    private String managerName;
+    private String managerEmail;
+    private Integer depthFromUser;  // Levels from the user up to the manager
+    private Integer depthFromOtherUser;
+
+    public static CommonManagerDTO fromCommonManager(CommonManager commonManager) {
+        return CommonManagerDTO.builder()
+                .userId(commonManager.getUserId())
+                .otherUserId(commonManager.getOtherUserId())
+                .managerId(commonManager.getManagerId())
+                .managerName(commonManager.getManagerName())
+                .managerEmail(commonManager.getManagerEmail())
+                .depthFromUser(commonManager.getDepthFromUser())
+                .depthFromOtherUser(commonManager.getDepthFromOtherUser())
+                .build();
+    }
+
+    public static CommonManagerDTO none(Long userId, Long otherUserId) {
+        return CommonManagerDTO.builder()
+                .userId(userId)
+                .otherUserId(otherUserId)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.apptware.auth.dto.hierarchy;
+
+import com.apptware.auth.models.projections.HierarchyMember;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A user in another user's reporting line, with the number of levels between them
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HierarchyMemberDTO {
+    private Long id;
+    private String name;
+    private String email;
+    private int depth;
+
+    public static HierarchyMemberDTO fromMember(HierarchyMember member) {
+        return HierarchyMemberDTO.builder()
+                .id(member.getId())
+                .name(member.getName())
+                .email(member.getEmail())
+                .depth(member.getDepth())
+                .build();
+    }
+
+    public static List<HierarchyMemberDTO> fromMemberList(List<HierarchyMember> members) {
+        return members.stream()
+                .map(HierarchyMemberDTO::fromMember)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,31 @@
+package com.apptware.auth.dto.hierarchy;
+
+import com.apptware.auth.models.projections.LevelHeadcount;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Number of users at one level of an organization's hierarchy, level 0 being the top-level users
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LevelHeadcountDTO {
+    private int level;
+    private long headcount;
+
+    public static List<LevelHeadcountDTO> fromHeadcountList(List<LevelHeadcount> headcounts) {
+        return headcounts.stream()
+                .map(headcount -> LevelHeadcountDTO.builder()
+                        .level(headcount.getLevel())
+                        .headcount(headcount.getHeadcount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,43 @@
+package com.apptware.auth.dto.hierarchy;
+
+import com.apptware.auth.models.projections.ManagerSpan;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Span of control of one manager, as of the last refresh of the span-of-control view
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManagerSpanDTO {
+    private Long managerId;
+    private String name;
+    private String email;
+    private long directReports;
+    private long totalReports;  // Direct and transitive reports
+    private int levelsBelow;  // Depth of the manager's subtree
+
+    public static ManagerSpanDTO fromSpan(ManagerSpan span) {
+        return ManagerSpanDTO.builder()
+                .managerId(span.getManagerId())
+                .name(span.getName())
+                .email(span.getEmail())
+                .directReports(span.getDirectReports())
+                .totalReports(span.getTotalReports())
+                .levelsBelow(span.getLevelsBelow())
+                .build();
+    }
+
+    public static List<ManagerSpanDTO> fromSpanList(List<ManagerSpan> spans) {
+        return spans.stream()
+                .map(ManagerSpanDTO::fromSpan)
+                .collect(Collectors.toList());
+    }
+}
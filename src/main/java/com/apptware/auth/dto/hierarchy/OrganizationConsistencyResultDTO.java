@@ -0,0 +1,35 @@
+package com.apptware.auth.dto.hierarchy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of comparing one organization's closure rows with its reporting managers
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizationConsistencyResultDTO {
+    private Long organizationId;
+    private boolean success;
+    private String message;  // Why the check stopped, null on success
+    private long usersChecked;
+    private long missingRows;  // Expected paths absent from user_closure
+    private long mismatchedDepthRows;  // Paths stored with the wrong depth
+    private long extraRows;  // Stored paths that reporting managers do not imply
+    private long cycleUsers;  // Users whose management chain runs into a reporting cycle, left unchecked
+    private long truncatedChains;  // Chains deeper than the depth limit; the chunks holding them are neither diffed nor repaired
+    private long repairedRows;  // Rows deleted or inserted by the repair, 0 when not repairing
+    private List<Long> driftedUserIds;  // A bounded sample of users with at least one wrong row
+    private long elapsedMillis;
+
+    public boolean isConsistent() {
+        return success && missingRows == 0 && mismatchedDepthRows == 0 && extraRows == 0 && cycleUsers == 0
+                && truncatedChains == 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.apptware.auth.dto.hierarchy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of rebuilding one organization's closure rows
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizationRebuildResultDTO {
+    private Long organizationId;
+    private boolean success;
+    private String message;  // Why the rebuild was rejected, null on success
+    private long rows;  // Closure rows written
+    private long elapsedMillis;
+}
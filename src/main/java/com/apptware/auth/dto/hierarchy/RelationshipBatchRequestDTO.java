@@ -0,0 +1,23 @@
+package com.apptware.auth.dto.hierarchy;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * DTO for resolving the pairwise relationships of a set of users in a single request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelationshipBatchRequestDTO {
+    @NotEmpty(message = "At least one user ID must be provided")
+    @Size(max = 500, message = "At most 500 user IDs can be sent per request")
+    private Set<Long> userIds;
+}
@@ -0,0 +1,21 @@
+package com.apptware.auth.dto.hierarchy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pairwise relationships of a set of users, one row per existing user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelationshipMatrixDTO {
+    private List<RelationshipRowDTO> rows;
+    private Set<Long> notFoundUserIds;  // Requested IDs that matched no user
+}
@@ -0,0 +1,20 @@
+package com.apptware.auth.dto.hierarchy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One row of the relationship matrix: other user ID -> relationship, for a single user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelationshipRowDTO {
+    private Long userId;
+    private Map<Long, UserRelationshipDTO> relationships;
+}
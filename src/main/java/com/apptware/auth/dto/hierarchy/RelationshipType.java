@@ -0,0 +1,11 @@
+package com.apptware.auth.dto.hierarchy;
+
+/**
+ * How one user relates to another in the reporting hierarchy
+ */
+public enum RelationshipType {
+    ANCESTOR,     // The user is a direct or transitive manager of the other user
+    SUBORDINATE,  // The user reports to the other user, directly or transitively
+    COLLEAGUE,    // Both users have the same reporting manager
+    NONE
+}
@@ -0,0 +1,19 @@
+package com.apptware.auth.dto.hierarchy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for moving a user and their reports below a new manager
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReparentResultDTO {
+    private Long userId;
+    private Long managerId;  // null when the user became top-level
+    private long movedUsers;  // The user plus everyone reporting to them
+}
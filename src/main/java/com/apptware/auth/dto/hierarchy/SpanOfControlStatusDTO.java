@@ -0,0 +1,22 @@
+package com.apptware.auth.dto.hierarchy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Freshness of the span-of-control views
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpanOfControlStatusDTO {
+    private boolean stale;  // The hierarchy changed since the last refresh
+    private LocalDateTime lastRefreshedAt;  // null until the first refresh of this instance
+    private long lastRefreshMillis;
+    private long refreshIntervalSeconds;
+}
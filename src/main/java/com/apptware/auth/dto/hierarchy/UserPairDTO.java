@@ -0,0 +1,22 @@
+package com.apptware.auth.dto.hierarchy;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Two users to find the nearest shared manager of in a batch request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPairDTO {
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    @NotNull(message = "Other user ID is required")
+    private Long otherUserId;
+}
@@ -0,0 +1,18 @@
+package com.apptware.auth.dto.hierarchy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Relationship of a user to one other user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRelationshipDTO {
+    private RelationshipType relationship;
+    private Integer depth;  // Levels between the users for ANCESTOR/SUBORDINATE, null otherwise
+}
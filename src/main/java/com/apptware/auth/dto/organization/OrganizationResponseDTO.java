@@ -1,10 +1,12 @@
 package com.apptware.auth.dto.organization;
 
 import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.projections.OrganizationCounts;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.Hibernate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,9 +31,25 @@ public class OrganizationResponseDTO {
                 .name(organization.getName())
                 .contactEmail(organization.getContactEmail())
                 .createdAt(organization.getCreatedAt())
-                .usersCount(organization.getUsers() != null ? organization.getUsers().size() : 0)
-                .rolesCount(organization.getRoles() != null ? organization.getRoles().size() : 0)
-                .groupsCount(organization.getGroups() != null ? organization.getGroups().size() : 0)
+                .usersCount(organization.getUsers() != null ? Hibernate.size(organization.getUsers()) : 0)
+                .rolesCount(organization.getRoles() != null ? Hibernate.size(organization.getRoles()) : 0)
+                .groupsCount(organization.getGroups() != null ? Hibernate.size(organization.getGroups()) : 0)
+                .build();
+    }
+    
+    /**
+     * Convert an Organization entity to this DTO using counts that were already queried,
+     * so none of its collections is initialized
+     */
+    public static OrganizationResponseDTO fromEntity(Organization organization, OrganizationCounts counts) {
+        return OrganizationResponseDTO.builder()
+                .id(organization.getId())
+                .name(organization.getName())
+                .contactEmail(organization.getContactEmail())
+                .createdAt(organization.getCreatedAt())
+                .usersCount(counts != null ? counts.getUsersCount() : 0)
+                .rolesCount(counts != null ? counts.getRolesCount() : 0)
+                .groupsCount(counts != null ? counts.getGroupsCount() : 0)
                 .build();
     }
     
@@ -1,6 +1,7 @@
 package com.apptware.auth.dto.organization;
 
 import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.projections.OrganizationSummary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,6 +27,14 @@ public class OrganizationSummaryDTO {
                 .build();
     }
     
+    public static OrganizationSummaryDTO fromSummary(OrganizationSummary summary) {
+        return OrganizationSummaryDTO.builder()
+                .id(summary.getId())
+                .name(summary.getName())
+                .contactEmail(summary.getContactEmail())
+                .build();
+    }
+    
     public static List<OrganizationSummaryDTO> fromEntityList(List<Organization> organizations) {
         return organizations.stream()
                 .map(OrganizationSummaryDTO::fromEntity)
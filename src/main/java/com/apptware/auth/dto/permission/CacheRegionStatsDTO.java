@@ -0,0 +1,38 @@
+package com.apptware.auth.dto.permission;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.stat.CacheRegionStatistics;
+
+/**
+ * Hit/miss/put statistics of one second-level cache region since startup
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRate;  // 0 until the region is first read
+    private long maximumSize;
+    private long expireAfterWriteSeconds;
+
+    public static CacheRegionStatsDTO fromStats(String region, CacheRegionStatistics stats, long maximumSize,
+                                                long expireAfterWriteSeconds) {
+        long requests = stats.getHitCount() + stats.getMissCount();
+        return CacheRegionStatsDTO.builder()
+                .region(region)
+                .hitCount(stats.getHitCount())
+                .missCount(stats.getMissCount())
+                .putCount(stats.getPutCount())
+                .hitRate(requests == 0 ? 0 : (double) stats.getHitCount() / requests)
+                .maximumSize(maximumSize)
+                .expireAfterWriteSeconds(expireAfterWriteSeconds)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.apptware.auth.dto.permission;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hit/miss/eviction statistics of the effective-permission cache, used to size it per deployment
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EffectivePermissionCacheStatsDTO {
+    private long estimatedSize;
+    private long maximumSize;
+    private long expireAfterWriteSeconds;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long invalidationCount;
+    
+    public static EffectivePermissionCacheStatsDTO fromStats(CacheStats stats, long estimatedSize, long maximumSize,
+                                                             long expireAfterWriteSeconds, long invalidationCount) {
+        return EffectivePermissionCacheStatsDTO.builder()
+                .estimatedSize(estimatedSize)
+                .maximumSize(maximumSize)
+                .expireAfterWriteSeconds(expireAfterWriteSeconds)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .invalidationCount(invalidationCount)
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.apptware.auth.dto.permission;
 
 
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,5 +22,6 @@ public class PermissionAssignmentRequestDTO {
      * IDs of the permissions to assign
      */
     @NotEmpty(message = "At least one permission ID must be provided")
+    @Size(max = 10000, message = "At most 10000 permission IDs can be sent per request")
     private Set<String> permissionIds;
 }
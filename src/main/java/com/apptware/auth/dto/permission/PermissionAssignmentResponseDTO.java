@@ -19,6 +19,7 @@ public class PermissionAssignmentResponseDTO {
     private String entityType;  // "USER", "ROLE", or "GROUP"
     private Set<PermissionResponseDTO> assignedPermissions;
     private Set<PermissionResponseDTO> removedPermissions;
+    private Set<String> notFoundPermissionIds;  // Requested IDs that matched no permission
     private String message;
     private boolean success;
 }
@@ -0,0 +1,25 @@
+package com.apptware.auth.dto.permission;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for checking many (user, permission) pairs in a single request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheckBatchRequestDTO {
+    @NotEmpty(message = "At least one check must be provided")
+    @Size(max = 10000, message = "At most 10000 checks can be sent per request")
+    @Valid
+    private List<PermissionCheckItemDTO> checks;
+}
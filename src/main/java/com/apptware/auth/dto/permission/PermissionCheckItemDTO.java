@@ -0,0 +1,27 @@
+package com.apptware.auth.dto.permission;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * One principal and the permissions to check for it in a batch authorization request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheckItemDTO {
+    @NotNull(message = "User ID is required")
+    private Long userId;
+    
+    @NotEmpty(message = "At least one permission ID must be provided")
+    @Size(max = 1000, message = "At most 1000 permission IDs can be checked per user")
+    private Set<String> permissionIds;
+}
@@ -0,0 +1,20 @@
+package com.apptware.auth.dto.permission;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One row of the batch authorization decision matrix: permission ID -> granted, for a single user
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheckResultDTO {
+    private Long userId;
+    private Map<String, Boolean> decisions;
+}
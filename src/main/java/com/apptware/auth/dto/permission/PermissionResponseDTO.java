@@ -1,11 +1,14 @@
 package com.apptware.auth.dto.permission;
 
 import com.apptware.auth.models.Permission;
+import com.apptware.auth.models.projections.PermissionHolderCounts;
+import com.apptware.auth.models.projections.PermissionRow;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.Hibernate;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,6 +33,10 @@ public class PermissionResponseDTO {
     private int rolesCount;
     private int groupsCount;
     
+    /**
+     * Convert a Permission entity to this DTO.
+     * Holder counts are read with COUNT queries; the inverse collections are never initialized.
+     */
     public static PermissionResponseDTO fromEntity(Permission permission) {
         return PermissionResponseDTO.builder()
                 .id(permission.getId())
@@ -37,9 +44,41 @@ public class PermissionResponseDTO {
                 .name(permission.getName())
                 .resources(permission.getResources())
                 .action(permission.getAction())
-                .usersCount(permission.getUsers() != null ? permission.getUsers().size() : 0)
-                .rolesCount(permission.getRoles() != null ? permission.getRoles().size() : 0)
-                .groupsCount(permission.getGroups() != null ? permission.getGroups().size() : 0)
+                .usersCount(permission.getUsers() != null ? Hibernate.size(permission.getUsers()) : 0)
+                .rolesCount(permission.getRoles() != null ? Hibernate.size(permission.getRoles()) : 0)
+                .groupsCount(permission.getGroups() != null ? Hibernate.size(permission.getGroups()) : 0)
+                .build();
+    }
+    
+    /**
+     * Convert a Permission entity to this DTO using holder counts that were already queried
+     */
+    public static PermissionResponseDTO fromEntity(Permission permission, PermissionHolderCounts counts) {
+        return PermissionResponseDTO.builder()
+                .id(permission.getId())
+                .permissionId(permission.getPermissionId())
+                .name(permission.getName())
+                .resources(permission.getResources())
+                .action(permission.getAction())
+                .usersCount(counts != null ? counts.getUsersCount() : 0)
+                .rolesCount(counts != null ? counts.getRolesCount() : 0)
+                .groupsCount(counts != null ? counts.getGroupsCount() : 0)
+                .build();
+    }
+    
+    /**
+     * Convert a PermissionRow projection to this DTO
+     */
+    public static PermissionResponseDTO fromRow(PermissionRow row) {
+        return PermissionResponseDTO.builder()
+                .id(row.getId())
+                .permissionId(row.getPermissionId())
+                .name(row.getName())
+                .resources(row.getResourcesStr() != null ? row.getResourcesStr().split(",") : null)
+                .action(row.getAction())
+                .usersCount(row.getUsersCount())
+                .rolesCount(row.getRolesCount())
+                .groupsCount(row.getGroupsCount())
                 .build();
     }
     
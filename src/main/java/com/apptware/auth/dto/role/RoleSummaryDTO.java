@@ -1,6 +1,7 @@
 package com.apptware.auth.dto.role;
 
 import com.apptware.auth.models.Role;
+import com.apptware.auth.models.projections.RoleSummary;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,6 +27,14 @@ public class RoleSummaryDTO {
                 .build();
     }
     
+    public static RoleSummaryDTO fromSummary(RoleSummary summary) {
+        return RoleSummaryDTO.builder()
+                .id(summary.getId())
+                .organizationId(summary.getOrganizationId())
+                .name(summary.getName())
+                .build();
+    }
+    
     public static List<RoleSummaryDTO> fromEntityList(List<Role> roles) {
         return roles.stream()
                 .map(RoleSummaryDTO::fromEntity)
@@ -1,10 +1,12 @@
 package com.apptware.auth.dto.user;
 
 import com.apptware.auth.models.User;
+import com.apptware.auth.models.projections.UserBrief;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.Hibernate;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -37,12 +39,37 @@ public class UserBriefDTO {
                 .email(user.getEmail())
                 .isAdmin(user.isAdmin())
                 .tokenVersion(user.getTokenVersion() != null ? user.getTokenVersion() : 0)
-                .permissionsCount(user.getPermissions() != null ? user.getPermissions().size() : 0)
-                .rolesCount(user.getRoles() != null ? user.getRoles().size() : 0)
-                .groupsCount(user.getGroups() != null ? user.getGroups().size() : 0)
+                .permissionsCount(user.getPermissions() != null ? Hibernate.size(user.getPermissions()) : 0)
+                .rolesCount(user.getRoles() != null ? Hibernate.size(user.getRoles()) : 0)
+                .groupsCount(user.getGroups() != null ? Hibernate.size(user.getGroups()) : 0)
                 .build();
     }
     
+    /**
+     * Convert a UserBrief projection to this DTO
+     */
+    public static UserBriefDTO fromBrief(UserBrief brief) {
+        return UserBriefDTO.builder()
+                .id(brief.getId())
+                .name(brief.getName())
+                .email(brief.getEmail())
+                .isAdmin(brief.getIsAdmin())
+                .tokenVersion(brief.getTokenVersion() != null ? brief.getTokenVersion() : 0)
+                .permissionsCount(brief.getPermissionsCount())
+                .rolesCount(brief.getRolesCount())
+                .groupsCount(brief.getGroupsCount())
+                .build();
+    }
+    
+    /**
+     * Convert a list of UserBrief projections to DTOs
+     */
+    public static List<UserBriefDTO> fromBriefList(List<UserBrief> briefs) {
+        return briefs.stream()
+                .map(UserBriefDTO::fromBrief)
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Convert a list of User entities to DTOs
      */
@@ -0,0 +1,43 @@
+package com.apptware.auth.dto.user;
+
+import com.apptware.auth.models.projections.UserExportRow;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One user of an organization export, with everything the user holds
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserExportDTO {
+    private Long id;
+    private String name;
+    private String email;
+    private boolean isAdmin;
+    private boolean isActive;
+    private Long reportingManagerId;
+    private List<String> roles;  // Role names
+    private List<String> groups;  // Group names
+    private List<String> effectivePermissionIds;  // Permission IDs held directly, through a role or a group
+
+    public static UserExportDTO fromRow(UserExportRow row, List<String> roles, List<String> groups,
+                                        List<String> effectivePermissionIds) {
+        return UserExportDTO.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .email(row.getEmail())
+                .isAdmin(row.getIsAdmin())
+                .isActive(row.getIsActive())
+                .reportingManagerId(row.getReportingManagerId())
+                .roles(roles)
+                .groups(groups)
+                .effectivePermissionIds(effectivePermissionIds)
+                .build();
+    }
+}
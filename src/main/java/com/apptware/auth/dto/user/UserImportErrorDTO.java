@@ -0,0 +1,19 @@
+package com.apptware.auth.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Why one row of a bulk import was rejected or only partly applied
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportErrorDTO {
+    private long row;  // 1-based position of the row in the input, header excluded; 0 for the import as a whole
+    private String email;
+    private String message;
+}
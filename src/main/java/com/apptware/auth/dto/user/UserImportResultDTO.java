@@ -0,0 +1,28 @@
+package com.apptware.auth.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+    private Long organizationId;
+    private long rowsRead;
+    private long usersCreated;
+    private long rowsRejected;
+    private long managersLinked;
+    private List<UserImportErrorDTO> errors;
+    private boolean errorsTruncated;  // More errors occurred than are listed
+    private long closureRowsAdded;  // Closure rows written for the new users once all of them are linked
+    private String hierarchyError;  // Why the new users could not be added to the hierarchy, null on success
+    private long elapsedMillis;
+}
@@ -0,0 +1,32 @@
+package com.apptware.auth.dto.user;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user of a bulk import, read from an NDJSON line or a CSV record.
+ * The reporting manager is referenced by email, so it can be another user of the same import,
+ * or by the database ID of an existing user of the organization.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRowDTO {
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email must be valid")
+    private String email;
+
+    private String password;  // Hashed before storage, optional
+    private Boolean isAdmin;  // Defaults to false
+    private Boolean isActive;  // Defaults to true
+    private String reportingManagerEmail;
+    private Long reportingManagerId;
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.Hibernate;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -42,9 +43,9 @@ public class UserResponseDTO {
                 .email(user.getEmail())
                 .isAdmin(user.isAdmin())
                 .tokenVersion(user.getTokenVersion() != null ? user.getTokenVersion() : 0)
-                .permissionsCount(user.getPermissions() != null ? user.getPermissions().size() : 0)
-                .rolesCount(user.getRoles() != null ? user.getRoles().size() : 0)
-                .groupsCount(user.getGroups() != null ? user.getGroups().size() : 0)
+                .permissionsCount(user.getPermissions() != null ? Hibernate.size(user.getPermissions()) : 0)
+                .rolesCount(user.getRoles() != null ? Hibernate.size(user.getRoles()) : 0)
+                .groupsCount(user.getGroups() != null ? Hibernate.size(user.getGroups()) : 0)
                 .build();
     }
     
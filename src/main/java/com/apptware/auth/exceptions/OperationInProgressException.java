@@ -0,0 +1,10 @@
+package com.apptware.auth.exceptions;
+
+/**
+ * Thrown when a long-running maintenance operation is requested while the same operation is still running
+ */
+public class OperationInProgressException extends RuntimeException {
+    public OperationInProgressException(String message) {
+        super(message);
+    }
+}
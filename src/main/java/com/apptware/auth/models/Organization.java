@@ -15,7 +15,8 @@ import java.util.Set;
 @Builder
 public class Organization {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "organizations_id_seq")
+    @SequenceGenerator(name = "organizations_id_seq", sequenceName = "organizations_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
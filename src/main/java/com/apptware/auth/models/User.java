@@ -3,6 +3,7 @@ package com.apptware.auth.models;
 import jakarta.persistence.*;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -14,7 +15,8 @@ import java.util.Set;
 @Builder
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -77,6 +79,20 @@ public class User {
 
     @Column(name = "is_active")
     private boolean isActive = true;
+
+    // Organization as last read from or written to the database, so a move to another organization can be detected on save
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Long storedOrganizationId;
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    private void rememberOrganization() {
+        this.storedOrganizationId = getOrganizationId();
+    }
     
     /**
      * Utility methods for permission management
@@ -12,7 +12,8 @@ import lombok.*;
 public class UserClosure {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_closure_id_seq")
+    @SequenceGenerator(name = "user_closure_id_seq", sequenceName = "user_closure_id_seq", allocationSize = 1)
     private Long id;
 
     // The ancestor (higher-up) user
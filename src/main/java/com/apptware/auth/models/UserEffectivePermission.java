@@ -0,0 +1,39 @@
+package com.apptware.auth.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * A row of the materialized user_effective_permissions table.
+ * Maintained incrementally by the permission assignment paths; never edited through JPA.
+ */
+@Entity
+@Table(name = "user_effective_permissions")
+@IdClass(UserEffectivePermission.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserEffectivePermission {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "permission_id")
+    private Long permissionId;
+
+    // Number of grant paths (direct, each role, each group) giving the user this permission
+    @Column(name = "source_count", nullable = false)
+    private int sourceCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long permissionId;
+    }
+}
@@ -0,0 +1,10 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Differences between the staged (expected) rows of a chunk of users and their stored rows
+ */
+public interface ClosureDrift {
+    long getMissingRows();
+    long getMismatchedDepthRows();
+    long getExtraRows();
+}
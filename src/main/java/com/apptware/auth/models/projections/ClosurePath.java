@@ -0,0 +1,10 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * (ancestor, descendant, depth) path of the closure
+ */
+public interface ClosurePath {
+    Long getAncestorId();
+    Long getDescendantId();
+    int getDepth();
+}
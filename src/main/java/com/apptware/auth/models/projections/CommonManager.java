@@ -0,0 +1,14 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Nearest manager shared by two users, with the levels from each user up to that manager
+ */
+public interface CommonManager {
+    Long getUserId();
+    Long getOtherUserId();
+    Long getManagerId();
+    String getManagerName();
+    String getManagerEmail();
+    Integer getDepthFromUser();
+    Integer getDepthFromOtherUser();
+}
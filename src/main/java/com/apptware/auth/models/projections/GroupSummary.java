@@ -0,0 +1,10 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Lightweight (id, organizationId, name) view of a group, used by the list endpoints
+ */
+public interface GroupSummary {
+    Long getId();
+    Long getOrganizationId();
+    String getName();
+}
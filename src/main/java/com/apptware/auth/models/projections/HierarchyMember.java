@@ -0,0 +1,11 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Lightweight (id, name, email, depth) view of a user relative to another user in the hierarchy
+ */
+public interface HierarchyMember {
+    Long getId();
+    String getName();
+    String getEmail();
+    int getDepth();
+}
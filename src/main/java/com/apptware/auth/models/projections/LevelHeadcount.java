@@ -0,0 +1,9 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Number of users at one level of an organization
+ */
+public interface LevelHeadcount {
+    int getLevel();
+    long getHeadcount();
+}
@@ -0,0 +1,13 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Report counts of one manager
+ */
+public interface ManagerSpan {
+    Long getManagerId();
+    String getName();
+    String getEmail();
+    long getDirectReports();
+    long getTotalReports();
+    int getLevelsBelow();
+}
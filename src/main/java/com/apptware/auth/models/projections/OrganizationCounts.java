@@ -0,0 +1,10 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Number of users, roles and groups in an organization
+ */
+public interface OrganizationCounts {
+    int getUsersCount();
+    int getRolesCount();
+    int getGroupsCount();
+}
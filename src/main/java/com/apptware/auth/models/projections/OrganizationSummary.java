@@ -0,0 +1,10 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Lightweight (id, name, contactEmail) view of an organization, used by the list endpoint
+ */
+public interface OrganizationSummary {
+    Long getId();
+    String getName();
+    String getContactEmail();
+}
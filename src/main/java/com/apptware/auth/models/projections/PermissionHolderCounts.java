@@ -0,0 +1,11 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Number of users, roles and groups holding a permission
+ */
+public interface PermissionHolderCounts {
+    Long getId();
+    int getUsersCount();
+    int getRolesCount();
+    int getGroupsCount();
+}
@@ -0,0 +1,10 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Lightweight (id, permissionId) view of a permission, used to index the catalog
+ * without loading the entities
+ */
+public interface PermissionKey {
+    Long getId();
+    String getPermissionId();
+}
@@ -0,0 +1,15 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Permission columns plus holder counts, read in one query without loading any collection
+ */
+public interface PermissionRow {
+    Long getId();
+    String getPermissionId();
+    String getName();
+    String getResourcesStr();
+    String getAction();
+    int getUsersCount();
+    int getRolesCount();
+    int getGroupsCount();
+}
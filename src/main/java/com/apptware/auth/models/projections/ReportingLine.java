@@ -0,0 +1,9 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * (user, reporting manager) pair, used to build the in-memory org chart
+ */
+public interface ReportingLine {
+    Long getId();
+    Long getReportingManagerId();
+}
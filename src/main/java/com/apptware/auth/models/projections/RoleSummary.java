@@ -0,0 +1,10 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * Lightweight (id, organizationId, name) view of a role, used by the list endpoints
+ */
+public interface RoleSummary {
+    Long getId();
+    Long getOrganizationId();
+    String getName();
+}
@@ -0,0 +1,15 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * User columns plus permission/role/group counts, read in one query without loading any collection
+ */
+public interface UserBrief {
+    Long getId();
+    String getName();
+    String getEmail();
+    boolean getIsAdmin();
+    Integer getTokenVersion();
+    int getPermissionsCount();
+    int getRolesCount();
+    int getGroupsCount();
+}
@@ -0,0 +1,9 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * (id, email) view of a user, used to resolve users referenced by email
+ */
+public interface UserEmail {
+    Long getId();
+    String getEmail();
+}
@@ -0,0 +1,13 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * User columns of the organization export
+ */
+public interface UserExportRow {
+    Long getId();
+    String getName();
+    String getEmail();
+    boolean getIsAdmin();
+    boolean getIsActive();
+    Long getReportingManagerId();
+}
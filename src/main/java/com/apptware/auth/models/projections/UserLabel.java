@@ -0,0 +1,9 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * A name attached to a user, e.g. one of the user's roles
+ */
+public interface UserLabel {
+    Long getUserId();
+    String getLabel();
+}
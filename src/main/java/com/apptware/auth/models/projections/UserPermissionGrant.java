@@ -0,0 +1,9 @@
+package com.apptware.auth.models.projections;
+
+/**
+ * A (user, permission) pair the user is granted
+ */
+public interface UserPermissionGrant {
+    Long getUserId();
+    String getPermissionId();
+}
@@ -2,15 +2,91 @@ package com.apptware.auth.repositories;
 
 import com.apptware.auth.models.Group;
 import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.projections.GroupSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
     List<Group> findByOrganization(Organization organization);
     Optional<Group> findByNameAndOrganization(String name, Organization organization);
     boolean existsByNameAndOrganization(String name, Organization organization);
+
+    String GROUP_SUMMARY_SELECT = "SELECT g.id AS id, o.id AS organizationId, g.name AS name " +
+                                 "FROM Group g LEFT JOIN g.organization o ";
+
+    @Query(GROUP_SUMMARY_SELECT + "WHERE g.id > :after ORDER BY g.id")
+    List<GroupSummary> findSummariesAfter(@Param("after") long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(GROUP_SUMMARY_SELECT + "ORDER BY g.id")
+    Stream<GroupSummary> streamSummaries();
+
+    /**
+     * Grant permissions to a group by writing group_permissions directly, without loading the group's or the
+     * permissions' collections. Only rows actually inserted are counted in user_effective_permissions.
+     */
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions")})
+    @Query(value = "WITH added AS (" +
+                   "INSERT INTO group_permissions (group_id, permission_id) " +
+                   "SELECT :groupId, p.id FROM permissions p WHERE p.id IN (:permissionIds) " +
+                   "AND NOT EXISTS (SELECT 1 FROM group_permissions x WHERE x.group_id = :groupId AND x.permission_id = p.id) " +
+                   "ON CONFLICT DO NOTHING RETURNING permission_id) " +
+                   "INSERT INTO user_effective_permissions (user_id, permission_id, source_count) " +
+                   "SELECT m.user_id, added.permission_id, 1 FROM added " +
+                   "JOIN user_groups m ON m.group_id = :groupId " +
+                   "ON CONFLICT (user_id, permission_id) " +
+                   "DO UPDATE SET source_count = user_effective_permissions.source_count + 1",
+           nativeQuery = true)
+    int grantPermissions(@Param("groupId") Long groupId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * Revoke permissions from a group by deleting from group_permissions directly. Only rows actually deleted
+     * lose a source in user_effective_permissions; rows left without sources are dropped separately.
+     */
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions")})
+    @Query(value = "WITH removed AS (" +
+                   "DELETE FROM group_permissions WHERE group_id = :groupId AND permission_id IN (:permissionIds) " +
+                   "RETURNING permission_id) " +
+                   "UPDATE user_effective_permissions uep SET source_count = uep.source_count - 1 " +
+                   "FROM removed JOIN user_groups m ON m.group_id = :groupId " +
+                   "WHERE uep.user_id = m.user_id AND uep.permission_id = removed.permission_id",
+           nativeQuery = true)
+    int revokePermissions(@Param("groupId") Long groupId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * Revoke every permission of a group, taking one source off each member's user_effective_permissions row
+     * it contributed to. Used before the group is deleted; rows left without sources are dropped separately.
+     */
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions")})
+    @Query(value = "WITH removed AS (" +
+                   "DELETE FROM group_permissions WHERE group_id = :groupId RETURNING permission_id) " +
+                   "UPDATE user_effective_permissions uep SET source_count = uep.source_count - 1 " +
+                   "FROM removed JOIN user_groups m ON m.group_id = :groupId " +
+                   "WHERE uep.user_id = m.user_id AND uep.permission_id = removed.permission_id",
+           nativeQuery = true)
+    int revokeAllPermissions(@Param("groupId") Long groupId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_groups"))
+    @Query(value = "DELETE FROM user_groups WHERE group_id = :groupId", nativeQuery = true)
+    int deleteMemberships(@Param("groupId") Long groupId);
 }
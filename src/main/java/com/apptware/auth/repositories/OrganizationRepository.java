@@ -1,13 +1,40 @@
 package com.apptware.auth.repositories;
 
 import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.projections.OrganizationCounts;
+import com.apptware.auth.models.projections.OrganizationSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrganizationRepository extends JpaRepository<Organization, Long> {
     Optional<Organization> findByName(String name);
     boolean existsByName(String name);
+
+    String ORGANIZATION_SUMMARY_SELECT = "SELECT o.id AS id, o.name AS name, o.contactEmail AS contactEmail " +
+                                         "FROM Organization o ";
+
+    @Query("SELECT o.id FROM Organization o ORDER BY o.id")
+    List<Long> findAllIds();
+
+    @Query(ORGANIZATION_SUMMARY_SELECT + "WHERE o.id > :after ORDER BY o.id")
+    List<OrganizationSummary> findSummariesAfter(@Param("after") long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ORGANIZATION_SUMMARY_SELECT + "ORDER BY o.id")
+    Stream<OrganizationSummary> streamSummaries();
+
+    @Query("SELECT SIZE(o.users) AS usersCount, SIZE(o.roles) AS rolesCount, SIZE(o.groups) AS groupsCount " +
+           "FROM Organization o WHERE o.id = :id")
+    Optional<OrganizationCounts> findCountsById(@Param("id") Long id);
 }
@@ -1,10 +1,23 @@
 package com.apptware.auth.repositories;
 
 import com.apptware.auth.models.Permission;
+import com.apptware.auth.models.projections.PermissionHolderCounts;
+import com.apptware.auth.models.projections.PermissionKey;
+import com.apptware.auth.models.projections.PermissionRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PermissionRepository extends JpaRepository<Permission, Long> {
@@ -12,4 +25,49 @@ public interface PermissionRepository extends JpaRepository<Permission, Long> {
     Optional<Permission> findByPermissionId(String permissionId);
     boolean existsByName(String name);
     boolean existsByPermissionId(String permissionId);
+    List<Permission> findAllByPermissionIdIn(Collection<String> permissionIds);
+
+    /**
+     * Reserve the next block of permission ID suffixes; the block spans the sequence increment
+     */
+    @Query(value = "SELECT nextval('permission_id_seq')", nativeQuery = true)
+    long nextPermissionIdBlock();
+
+    @Query("SELECT p.id AS id, p.permissionId AS permissionId FROM Permission p")
+    List<PermissionKey> findAllKeys();
+
+    String PERMISSION_ROW_SELECT = "SELECT p.id AS id, p.permissionId AS permissionId, p.name AS name, " +
+                                   "p.resourcesStr AS resourcesStr, p.action AS action, SIZE(p.users) AS usersCount, " +
+                                   "SIZE(p.roles) AS rolesCount, SIZE(p.groups) AS groupsCount FROM Permission p ";
+
+    @Query(PERMISSION_ROW_SELECT + "WHERE p.id > :after ORDER BY p.id")
+    List<PermissionRow> findRowsAfter(@Param("after") long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(PERMISSION_ROW_SELECT + "ORDER BY p.id")
+    Stream<PermissionRow> streamRows();
+
+    @Query("SELECT p.id AS id, SIZE(p.users) AS usersCount, SIZE(p.roles) AS rolesCount, " +
+           "SIZE(p.groups) AS groupsCount FROM Permission p WHERE p.id IN :ids")
+    List<PermissionHolderCounts> findHolderCounts(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT rp.role_id FROM role_permissions rp WHERE rp.permission_id = :id", nativeQuery = true)
+    List<Long> findRoleIdsById(@Param("id") Long id);
+
+    @Query(value = "SELECT gp.group_id FROM group_permissions gp WHERE gp.permission_id = :id", nativeQuery = true)
+    List<Long> findGroupIdsById(@Param("id") Long id);
+
+    /**
+     * Take a permission away from every user, role and group holding it, ahead of deleting it; the join
+     * tables do not cascade from permissions. user_effective_permissions rows go with the permission itself.
+     */
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "role_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "group_permissions")})
+    @Query(value = "WITH from_roles AS (DELETE FROM role_permissions WHERE permission_id = :id), " +
+                   "from_groups AS (DELETE FROM group_permissions WHERE permission_id = :id) " +
+                   "DELETE FROM user_permissions WHERE permission_id = :id",
+           nativeQuery = true)
+    int deleteGrants(@Param("id") Long id);
 }
@@ -2,15 +2,91 @@ package com.apptware.auth.repositories;
 
 import com.apptware.auth.models.Organization;
 import com.apptware.auth.models.Role;
+import com.apptware.auth.models.projections.RoleSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
     List<Role> findByOrganization(Organization organization);
     Optional<Role> findByNameAndOrganization(String name, Organization organization);
     boolean existsByNameAndOrganization(String name, Organization organization);
+
+    String ROLE_SUMMARY_SELECT = "SELECT r.id AS id, o.id AS organizationId, r.name AS name " +
+                                 "FROM Role r LEFT JOIN r.organization o ";
+
+    @Query(ROLE_SUMMARY_SELECT + "WHERE r.id > :after ORDER BY r.id")
+    List<RoleSummary> findSummariesAfter(@Param("after") long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROLE_SUMMARY_SELECT + "ORDER BY r.id")
+    Stream<RoleSummary> streamSummaries();
+
+    /**
+     * Grant permissions to a role by writing role_permissions directly, without loading the role's or the
+     * permissions' collections. Only rows actually inserted are counted in user_effective_permissions.
+     */
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "role_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions")})
+    @Query(value = "WITH added AS (" +
+                   "INSERT INTO role_permissions (role_id, permission_id) " +
+                   "SELECT :roleId, p.id FROM permissions p WHERE p.id IN (:permissionIds) " +
+                   "AND NOT EXISTS (SELECT 1 FROM role_permissions x WHERE x.role_id = :roleId AND x.permission_id = p.id) " +
+                   "ON CONFLICT DO NOTHING RETURNING permission_id) " +
+                   "INSERT INTO user_effective_permissions (user_id, permission_id, source_count) " +
+                   "SELECT m.user_id, added.permission_id, 1 FROM added " +
+                   "JOIN user_roles m ON m.role_id = :roleId " +
+                   "ON CONFLICT (user_id, permission_id) " +
+                   "DO UPDATE SET source_count = user_effective_permissions.source_count + 1",
+           nativeQuery = true)
+    int grantPermissions(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * Revoke permissions from a role by deleting from role_permissions directly. Only rows actually deleted
+     * lose a source in user_effective_permissions; rows left without sources are dropped separately.
+     */
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "role_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions")})
+    @Query(value = "WITH removed AS (" +
+                   "DELETE FROM role_permissions WHERE role_id = :roleId AND permission_id IN (:permissionIds) " +
+                   "RETURNING permission_id) " +
+                   "UPDATE user_effective_permissions uep SET source_count = uep.source_count - 1 " +
+                   "FROM removed JOIN user_roles m ON m.role_id = :roleId " +
+                   "WHERE uep.user_id = m.user_id AND uep.permission_id = removed.permission_id",
+           nativeQuery = true)
+    int revokePermissions(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * Revoke every permission of a role, taking one source off each member's user_effective_permissions row
+     * it contributed to. Used before the role is deleted; rows left without sources are dropped separately.
+     */
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "role_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions")})
+    @Query(value = "WITH removed AS (" +
+                   "DELETE FROM role_permissions WHERE role_id = :roleId RETURNING permission_id) " +
+                   "UPDATE user_effective_permissions uep SET source_count = uep.source_count - 1 " +
+                   "FROM removed JOIN user_roles m ON m.role_id = :roleId " +
+                   "WHERE uep.user_id = m.user_id AND uep.permission_id = removed.permission_id",
+           nativeQuery = true)
+    int revokeAllPermissions(@Param("roleId") Long roleId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    @Query(value = "DELETE FROM user_roles WHERE role_id = :roleId", nativeQuery = true)
+    int deleteMemberships(@Param("roleId") Long roleId);
 }
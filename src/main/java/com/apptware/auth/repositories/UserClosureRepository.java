@@ -2,11 +2,23 @@ package com.apptware.auth.repositories;
 
 import com.apptware.auth.models.User;
 import com.apptware.auth.models.UserClosure;
+import com.apptware.auth.models.projections.ClosureDrift;
+import com.apptware.auth.models.projections.ClosurePath;
+import com.apptware.auth.models.projections.CommonManager;
+import com.apptware.auth.models.projections.HierarchyMember;
+import com.apptware.auth.models.projections.LevelHeadcount;
+import com.apptware.auth.models.projections.ManagerSpan;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface UserClosureRepository extends JpaRepository<UserClosure, Long> {
@@ -27,4 +39,371 @@ public interface UserClosureRepository extends JpaRepository<UserClosure, Long>
            "WHERE uc.descendant.id = :descendantId " +
            "AND uc.depth > 0")
     List<User> findAncestors(@Param("descendantId") Long descendantId);
+
+    /**
+     * One page of a user's subordinates in (depth, id) order, resumed after the given cursor
+     */
+    @Query(value = "SELECT u.id AS \"id\", u.name AS \"name\", u.email AS \"email\", uc.depth AS \"depth\" " +
+                   "FROM user_closure uc JOIN users u ON u.id = uc.descendant_id " +
+                   "WHERE uc.ancestor_id = :ancestorId AND uc.depth > 0 AND uc.depth <= :maxDepth " +
+                   "AND (uc.depth, uc.descendant_id) > (:afterDepth, :afterId) " +
+                   "ORDER BY uc.depth, uc.descendant_id LIMIT :limit",
+           nativeQuery = true)
+    List<HierarchyMember> findSubordinatePage(@Param("ancestorId") Long ancestorId,
+                                              @Param("maxDepth") int maxDepth,
+                                              @Param("afterDepth") int afterDepth,
+                                              @Param("afterId") long afterId,
+                                              @Param("limit") int limit);
+
+    /**
+     * One page of a user's management chain, nearest manager first; each depth holds exactly one ancestor
+     */
+    @Query(value = "SELECT u.id AS \"id\", u.name AS \"name\", u.email AS \"email\", uc.depth AS \"depth\" " +
+                   "FROM user_closure uc JOIN users u ON u.id = uc.ancestor_id " +
+                   "WHERE uc.descendant_id = :descendantId AND uc.depth > :afterDepth AND uc.depth <= :maxDepth " +
+                   "ORDER BY uc.depth LIMIT :limit",
+           nativeQuery = true)
+    List<HierarchyMember> findAncestorPage(@Param("descendantId") Long descendantId,
+                                           @Param("maxDepth") int maxDepth,
+                                           @Param("afterDepth") int afterDepth,
+                                           @Param("limit") int limit);
+
+    /**
+     * A user's whole management chain, nearest manager first
+     */
+    @Query(value = "SELECT u.id AS \"id\", u.name AS \"name\", u.email AS \"email\", uc.depth AS \"depth\" " +
+                   "FROM user_closure uc JOIN users u ON u.id = uc.ancestor_id " +
+                   "WHERE uc.descendant_id = :descendantId AND uc.depth > 0 " +
+                   "ORDER BY uc.depth",
+           nativeQuery = true)
+    List<HierarchyMember> findManagementChain(@Param("descendantId") Long descendantId);
+
+    /**
+     * Join both users' ancestor rows (self rows included) on the ancestor and keep the one nearest
+     * to the first user; in a tree it is also the nearest to the second user
+     */
+    @Query(value = "SELECT a.descendant_id AS \"userId\", b.descendant_id AS \"otherUserId\", " +
+                   "u.id AS \"managerId\", u.name AS \"managerName\", u.email AS \"managerEmail\", " +
+                   "a.depth AS \"depthFromUser\", b.depth AS \"depthFromOtherUser\" " +
+                   "FROM user_closure a " +
+                   "JOIN user_closure b ON b.ancestor_id = a.ancestor_id AND b.descendant_id = :otherUserId " +
+                   "JOIN users u ON u.id = a.ancestor_id " +
+                   "WHERE a.descendant_id = :userId " +
+                   "ORDER BY a.depth LIMIT 1",
+           nativeQuery = true)
+    Optional<CommonManager> findLowestCommonManager(@Param("userId") Long userId,
+                                                    @Param("otherUserId") Long otherUserId);
+
+    /**
+     * Same as {@link #findLowestCommonManager} for many pairs at once, the i-th elements of both arrays
+     * forming a pair. Pairs without a shared manager are left out.
+     */
+    @Query(value = "SELECT DISTINCT ON (p.user_id, p.other_user_id) " +
+                   "p.user_id AS \"userId\", p.other_user_id AS \"otherUserId\", " +
+                   "u.id AS \"managerId\", u.name AS \"managerName\", u.email AS \"managerEmail\", " +
+                   "a.depth AS \"depthFromUser\", b.depth AS \"depthFromOtherUser\" " +
+                   "FROM unnest(CAST(:userIds AS BIGINT[]), CAST(:otherUserIds AS BIGINT[])) AS p (user_id, other_user_id) " +
+                   "JOIN user_closure a ON a.descendant_id = p.user_id " +
+                   "JOIN user_closure b ON b.ancestor_id = a.ancestor_id AND b.descendant_id = p.other_user_id " +
+                   "JOIN users u ON u.id = a.ancestor_id " +
+                   "ORDER BY p.user_id, p.other_user_id, a.depth",
+           nativeQuery = true)
+    List<CommonManager> findLowestCommonManagers(@Param("userIds") Long[] userIds,
+                                                 @Param("otherUserIds") Long[] otherUserIds);
+
+    @Query(value = "SELECT uc.ancestor_id AS \"ancestorId\", uc.descendant_id AS \"descendantId\", uc.depth AS \"depth\" " +
+                   "FROM user_closure uc " +
+                   "WHERE uc.ancestor_id IN (:userIds) AND uc.descendant_id IN (:userIds) AND uc.depth > 0",
+           nativeQuery = true)
+    List<ClosurePath> findPathsAmong(@Param("userIds") Collection<Long> userIds);
+
+    /*
+     * Span-of-control views, aggregated from user_closure on refresh (see V7 migration)
+     */
+
+    @Query(value = "SELECT s.manager_id AS \"managerId\", u.name AS \"name\", u.email AS \"email\", " +
+                   "s.direct_reports AS \"directReports\", s.total_reports AS \"totalReports\", " +
+                   "s.levels_below AS \"levelsBelow\" " +
+                   "FROM manager_span_of_control s JOIN users u ON u.id = s.manager_id " +
+                   "WHERE s.organization_id = :orgId AND s.manager_id > :after " +
+                   "ORDER BY s.manager_id LIMIT :limit",
+           nativeQuery = true)
+    List<ManagerSpan> findManagerSpanPage(@Param("orgId") Long orgId,
+                                          @Param("after") long after,
+                                          @Param("limit") int limit);
+
+    @Query(value = "SELECT h.level AS \"level\", h.headcount AS \"headcount\" " +
+                   "FROM organization_level_headcount h WHERE h.organization_id = :orgId ORDER BY h.level",
+           nativeQuery = true)
+    List<LevelHeadcount> findLevelHeadcounts(@Param("orgId") Long orgId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "manager_span_of_control"))
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY manager_span_of_control", nativeQuery = true)
+    void refreshManagerSpans();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "organization_level_headcount"))
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY organization_level_headcount", nativeQuery = true)
+    void refreshLevelHeadcounts();
+
+    @Query(value = "SELECT uc.ancestor_id FROM user_closure uc WHERE uc.descendant_id = :userId AND uc.depth = 1",
+           nativeQuery = true)
+    Optional<Long> findManagerId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT COUNT(*) FROM user_closure uc WHERE uc.ancestor_id = :userId", nativeQuery = true)
+    long countSubtree(@Param("userId") Long userId);
+
+    /**
+     * Serialize hierarchy changes within an organization until the transaction ends,
+     * so concurrent moves of overlapping subtrees cannot interleave their statements
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('user_closure'), " +
+                   "CAST(:orgId % 2147483647 AS INTEGER))) l",
+           nativeQuery = true)
+    int lockOrganization(@Param("orgId") Long orgId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "INSERT INTO user_closure (ancestor_id, descendant_id, depth) VALUES (:userId, :userId, 0) " +
+                   "ON CONFLICT (ancestor_id, descendant_id) DO NOTHING",
+           nativeQuery = true)
+    int insertSelf(@Param("userId") Long userId);
+
+    /**
+     * Link a user's subtree below a manager in one statement: every ancestor of the manager (including the
+     * manager's self row) cross-joined with every member of the subtree, depths added up.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "INSERT INTO user_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+                   "FROM user_closure a CROSS JOIN user_closure d " +
+                   "WHERE a.descendant_id = :managerId AND d.ancestor_id = :userId " +
+                   "ON CONFLICT (ancestor_id, descendant_id) DO NOTHING",
+           nativeQuery = true)
+    int attachSubtree(@Param("userId") Long userId, @Param("managerId") Long managerId);
+
+    /**
+     * Write the closure rows of newly created users in one statement. Each user's chain is walked up through
+     * the other new users (self rows included), and where it leaves them, crossed with the stored ancestors
+     * of the first manager outside the set. Rows of existing users are only read. The walk is cut at
+     * maxDepth; the new users' links must not form a cycle.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "INSERT INTO user_closure (ancestor_id, descendant_id, depth) " +
+                   "WITH RECURSIVE added (id) AS (SELECT unnest(CAST(:userIds AS BIGINT[]))), " +
+                   "chain (ancestor_id, descendant_id, depth) AS (" +
+                   "SELECT a.id, a.id, 0 FROM added a " +
+                   "UNION ALL " +
+                   "SELECT m.reporting_manager_id, c.descendant_id, c.depth + 1 " +
+                   "FROM chain c " +
+                   "JOIN users m ON m.id = c.ancestor_id " +
+                   "JOIN added a ON a.id = m.reporting_manager_id " +
+                   "WHERE c.depth < :maxDepth) " +
+                   "SELECT c.ancestor_id, c.descendant_id, c.depth FROM chain c " +
+                   "UNION ALL " +
+                   "SELECT uc.ancestor_id, c.descendant_id, uc.depth + c.depth + 1 " +
+                   "FROM chain c " +
+                   "JOIN users t ON t.id = c.ancestor_id " +
+                   "JOIN user_closure uc ON uc.descendant_id = t.reporting_manager_id " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM added a WHERE a.id = t.reporting_manager_id) " +
+                   "ON CONFLICT (ancestor_id, descendant_id) DO NOTHING",
+           nativeQuery = true)
+    int insertForNewUsers(@Param("userIds") Long[] userIds, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Unlink a user's subtree from the user's current ancestors: every path that starts above the user
+     * and ends inside the subtree is dropped, paths within the subtree are kept.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "DELETE FROM user_closure uc " +
+                   "USING user_closure a, user_closure d " +
+                   "WHERE a.descendant_id = :userId AND a.depth > 0 " +
+                   "AND d.ancestor_id = :userId " +
+                   "AND uc.ancestor_id = a.ancestor_id AND uc.descendant_id = d.descendant_id",
+           nativeQuery = true)
+    int detachSubtree(@Param("userId") Long userId);
+
+    /**
+     * Lift a user's subordinates one level, as if the user were taken out of the chain: every path that
+     * starts above the user and ends strictly below the user gets one level shorter
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "UPDATE user_closure uc SET depth = uc.depth - 1 " +
+                   "FROM user_closure a, user_closure d " +
+                   "WHERE a.descendant_id = :userId AND a.depth > 0 " +
+                   "AND d.ancestor_id = :userId AND d.depth > 0 " +
+                   "AND uc.ancestor_id = a.ancestor_id AND uc.descendant_id = d.descendant_id",
+           nativeQuery = true)
+    int collapseSubtree(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "DELETE FROM user_closure WHERE ancestor_id = :userId OR descendant_id = :userId",
+           nativeQuery = true)
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /*
+     * Rebuild of an organization's closure from users.reporting_manager_id. Rows are staged in a
+     * transaction-local temp table, checked, then swapped in within the same transaction.
+     */
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure_staging"))
+    @Query(value = "CREATE TEMP TABLE user_closure_staging (" +
+                   "ancestor_id BIGINT NOT NULL, descendant_id BIGINT NOT NULL, depth INTEGER NOT NULL, " +
+                   "looped BOOLEAN NOT NULL) ON COMMIT DROP",
+           nativeQuery = true)
+    void createStagingTable();
+
+    /**
+     * Walk every user's management chain within the organization. The path array flags a walk that
+     * revisits a user (a reporting cycle) and stops it; walks are also cut at maxDepth.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure_staging"))
+    @Query(value = "INSERT INTO user_closure_staging (ancestor_id, descendant_id, depth, looped) " +
+                   "WITH RECURSIVE chain (ancestor_id, descendant_id, depth, path, looped) AS (" +
+                   "SELECT u.id, u.id, 0, ARRAY[u.id], false FROM users u WHERE u.org_id = :orgId " +
+                   "UNION ALL " +
+                   "SELECT m.reporting_manager_id, c.descendant_id, c.depth + 1, " +
+                   "c.path || m.reporting_manager_id, m.reporting_manager_id = ANY (c.path) " +
+                   "FROM chain c " +
+                   "JOIN users m ON m.id = c.ancestor_id " +
+                   "JOIN users p ON p.id = m.reporting_manager_id AND p.org_id = :orgId " +
+                   "WHERE NOT c.looped AND c.depth < :maxDepth) " +
+                   "SELECT ancestor_id, descendant_id, depth, looped FROM chain",
+           nativeQuery = true)
+    int fillStaging(@Param("orgId") Long orgId, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Same walk as {@link #fillStaging}, restricted to the organization's users with afterId < id <= lastId
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure_staging"))
+    @Query(value = "INSERT INTO user_closure_staging (ancestor_id, descendant_id, depth, looped) " +
+                   "WITH RECURSIVE chain (ancestor_id, descendant_id, depth, path, looped) AS (" +
+                   "SELECT u.id, u.id, 0, ARRAY[u.id], false FROM users u " +
+                   "WHERE u.org_id = :orgId AND u.id > :afterId AND u.id <= :lastId " +
+                   "UNION ALL " +
+                   "SELECT m.reporting_manager_id, c.descendant_id, c.depth + 1, " +
+                   "c.path || m.reporting_manager_id, m.reporting_manager_id = ANY (c.path) " +
+                   "FROM chain c " +
+                   "JOIN users m ON m.id = c.ancestor_id " +
+                   "JOIN users p ON p.id = m.reporting_manager_id AND p.org_id = :orgId " +
+                   "WHERE NOT c.looped AND c.depth < :maxDepth) " +
+                   "SELECT ancestor_id, descendant_id, depth, looped FROM chain",
+           nativeQuery = true)
+    int fillStagingRange(@Param("orgId") Long orgId,
+                         @Param("afterId") long afterId,
+                         @Param("lastId") long lastId,
+                         @Param("maxDepth") int maxDepth);
+
+    /*
+     * Drift queries compare the staged rows of the users with afterId < id <= lastId with their stored rows.
+     * Users whose walk ran into a reporting cycle have no well-defined closure and are left out.
+     */
+
+    String STAGED_CYCLE_USERS = "SELECT l.descendant_id FROM user_closure_staging l WHERE l.looped";
+
+    String STORED_CHUNK_ROWS = "FROM user_closure uc JOIN users u ON u.id = uc.descendant_id " +
+                               "WHERE u.org_id = :orgId AND u.id > :afterId AND u.id <= :lastId " +
+                               "AND uc.descendant_id NOT IN (" + STAGED_CYCLE_USERS + ") ";
+
+    @Query(value = "SELECT " +
+                   "(SELECT COUNT(*) FROM user_closure_staging s " +
+                   "LEFT JOIN user_closure uc ON uc.ancestor_id = s.ancestor_id AND uc.descendant_id = s.descendant_id " +
+                   "WHERE uc.id IS NULL AND s.descendant_id NOT IN (" + STAGED_CYCLE_USERS + ")) AS \"missingRows\", " +
+                   "(SELECT COUNT(*) FROM user_closure_staging s " +
+                   "JOIN user_closure uc ON uc.ancestor_id = s.ancestor_id AND uc.descendant_id = s.descendant_id " +
+                   "WHERE uc.depth <> s.depth AND s.descendant_id NOT IN (" + STAGED_CYCLE_USERS + ")) " +
+                   "AS \"mismatchedDepthRows\", " +
+                   "(SELECT COUNT(*) " + STORED_CHUNK_ROWS +
+                   "AND NOT EXISTS (SELECT 1 FROM user_closure_staging s " +
+                   "WHERE s.ancestor_id = uc.ancestor_id AND s.descendant_id = uc.descendant_id)) AS \"extraRows\"",
+           nativeQuery = true)
+    ClosureDrift countStagedDrift(@Param("orgId") Long orgId,
+                                  @Param("afterId") long afterId,
+                                  @Param("lastId") long lastId);
+
+    /**
+     * Users of the chunk with at least one missing, extra or mismatched row
+     */
+    @Query(value = "SELECT d.descendant_id FROM (" +
+                   "SELECT s.descendant_id FROM user_closure_staging s " +
+                   "LEFT JOIN user_closure uc ON uc.ancestor_id = s.ancestor_id AND uc.descendant_id = s.descendant_id " +
+                   "AND uc.depth = s.depth " +
+                   "WHERE uc.id IS NULL AND s.descendant_id NOT IN (" + STAGED_CYCLE_USERS + ") " +
+                   "UNION " +
+                   "SELECT uc.descendant_id " + STORED_CHUNK_ROWS +
+                   "AND NOT EXISTS (SELECT 1 FROM user_closure_staging s " +
+                   "WHERE s.ancestor_id = uc.ancestor_id AND s.descendant_id = uc.descendant_id)) d " +
+                   "ORDER BY d.descendant_id LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findStagedDriftUserIds(@Param("orgId") Long orgId,
+                                      @Param("afterId") long afterId,
+                                      @Param("lastId") long lastId,
+                                      @Param("limit") int limit);
+
+    /**
+     * Delete the chunk's stored rows that are not staged with the same depth
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "DELETE FROM user_closure uc USING users u " +
+                   "WHERE u.id = uc.descendant_id AND u.org_id = :orgId AND u.id > :afterId AND u.id <= :lastId " +
+                   "AND uc.descendant_id NOT IN (" + STAGED_CYCLE_USERS + ") " +
+                   "AND NOT EXISTS (SELECT 1 FROM user_closure_staging s WHERE s.ancestor_id = uc.ancestor_id " +
+                   "AND s.descendant_id = uc.descendant_id AND s.depth = uc.depth)",
+           nativeQuery = true)
+    int deleteStagedDrift(@Param("orgId") Long orgId,
+                          @Param("afterId") long afterId,
+                          @Param("lastId") long lastId);
+
+    /**
+     * Insert the chunk's staged rows that are not stored yet
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "INSERT INTO user_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT s.ancestor_id, s.descendant_id, s.depth FROM user_closure_staging s " +
+                   "WHERE s.descendant_id NOT IN (" + STAGED_CYCLE_USERS + ") " +
+                   "ON CONFLICT (ancestor_id, descendant_id) DO NOTHING",
+           nativeQuery = true)
+    int insertMissingFromStaging();
+
+    @Query(value = "SELECT COUNT(*) FROM user_closure_staging s WHERE s.depth = 0", nativeQuery = true)
+    long countStagedUsers();
+
+    @Query(value = "SELECT COUNT(DISTINCT s.descendant_id) FROM user_closure_staging s WHERE s.looped",
+           nativeQuery = true)
+    long countStagedCycleUsers();
+
+    /**
+     * Chains that were cut at maxDepth although their top user still has a manager in the organization
+     */
+    @Query(value = "SELECT COUNT(*) FROM user_closure_staging s " +
+                   "JOIN users m ON m.id = s.ancestor_id " +
+                   "JOIN users p ON p.id = m.reporting_manager_id AND p.org_id = :orgId " +
+                   "WHERE s.depth = :maxDepth AND NOT s.looped",
+           nativeQuery = true)
+    long countStagedTruncatedChains(@Param("orgId") Long orgId, @Param("maxDepth") int maxDepth);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "DELETE FROM user_closure uc USING users u " +
+                   "WHERE uc.descendant_id = u.id AND u.org_id = :orgId",
+           nativeQuery = true)
+    int deleteByOrganizationId(@Param("orgId") Long orgId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_closure"))
+    @Query(value = "INSERT INTO user_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT s.ancestor_id, s.descendant_id, s.depth FROM user_closure_staging s WHERE NOT s.looped",
+           nativeQuery = true)
+    int insertFromStaging();
 }
@@ -0,0 +1,103 @@
+package com.apptware.auth.repositories;
+
+import com.apptware.auth.models.UserEffectivePermission;
+import com.apptware.auth.models.projections.UserPermissionGrant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and maintenance of the materialized user_effective_permissions table.
+ * Grants and revocations update it together with the join tables, see the
+ * grantPermissions/revokePermissions statements of the user, role and group repositories.
+ */
+@Repository
+public interface UserEffectivePermissionRepository
+        extends JpaRepository<UserEffectivePermission, UserEffectivePermission.Key> {
+
+    @Query(value = "SELECT uep.permission_id FROM user_effective_permissions uep WHERE uep.user_id = :userId",
+           nativeQuery = true)
+    List<Long> findPermissionIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Resolve, set-wise, which of the given permissions each of the given users is granted.
+     * Only granted pairs are returned. The permission IDs are bound as a single array parameter,
+     * so their number does not count against the driver's bind-parameter limit.
+     */
+    @Query(value = "SELECT uep.user_id AS \"userId\", p.permission_id AS \"permissionId\" " +
+                   "FROM user_effective_permissions uep " +
+                   "JOIN permissions p ON p.id = uep.permission_id " +
+                   "WHERE uep.user_id IN (:userIds) AND p.permission_id = ANY (CAST(:permissionIds AS TEXT[]))",
+           nativeQuery = true)
+    List<UserPermissionGrant> findGrantedPermissions(@Param("userIds") Collection<Long> userIds,
+                                                     @Param("permissionIds") String[] permissionIds);
+
+    // Rows left without any source after a revocation
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions"))
+    @Query(value = "DELETE FROM user_effective_permissions " +
+                   "WHERE user_id = :userId AND permission_id IN (:permissionIds) AND source_count <= 0",
+           nativeQuery = true)
+    int deleteUserExhausted(@Param("userId") Long userId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions"))
+    @Query(value = "DELETE FROM user_effective_permissions uep USING user_roles ur WHERE ur.role_id = :roleId " +
+                   "AND uep.user_id = ur.user_id AND uep.permission_id IN (:permissionIds) " +
+                   "AND uep.source_count <= 0",
+           nativeQuery = true)
+    int deleteRoleExhausted(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions"))
+    @Query(value = "DELETE FROM user_effective_permissions uep USING user_groups ug WHERE ug.group_id = :groupId " +
+                   "AND uep.user_id = ug.user_id AND uep.permission_id IN (:permissionIds) " +
+                   "AND uep.source_count <= 0",
+           nativeQuery = true)
+    int deleteGroupExhausted(@Param("groupId") Long groupId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions"))
+    @Query(value = "DELETE FROM user_effective_permissions uep USING user_roles ur WHERE ur.role_id = :roleId " +
+                   "AND uep.user_id = ur.user_id AND uep.source_count <= 0",
+           nativeQuery = true)
+    int deleteRoleMembersExhausted(@Param("roleId") Long roleId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions"))
+    @Query(value = "DELETE FROM user_effective_permissions uep USING user_groups ug WHERE ug.group_id = :groupId " +
+                   "AND uep.user_id = ug.user_id AND uep.source_count <= 0",
+           nativeQuery = true)
+    int deleteGroupMembersExhausted(@Param("groupId") Long groupId);
+
+    // Full rebuild, used to repair drift
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions"))
+    @Query(value = "DELETE FROM user_effective_permissions", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions"))
+    @Query(value = "INSERT INTO user_effective_permissions (user_id, permission_id, source_count) " +
+                   "SELECT grants.user_id, grants.permission_id, COUNT(*) FROM (" +
+                   "SELECT up.user_id, up.permission_id FROM user_permissions up " +
+                   "UNION ALL " +
+                   "SELECT ur.user_id, rp.permission_id FROM user_roles ur " +
+                   "JOIN role_permissions rp ON rp.role_id = ur.role_id " +
+                   "UNION ALL " +
+                   "SELECT ug.user_id, gp.permission_id FROM user_groups ug " +
+                   "JOIN group_permissions gp ON gp.group_id = ug.group_id" +
+                   ") grants GROUP BY grants.user_id, grants.permission_id",
+           nativeQuery = true)
+    int insertAllFromGrants();
+}
@@ -2,13 +2,25 @@ package com.apptware.auth.repositories;
 
 import com.apptware.auth.models.Organization;
 import com.apptware.auth.models.User;
+import com.apptware.auth.models.projections.ReportingLine;
+import com.apptware.auth.models.projections.UserBrief;
+import com.apptware.auth.models.projections.UserEmail;
+import com.apptware.auth.models.projections.UserExportRow;
+import com.apptware.auth.models.projections.UserLabel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -17,10 +29,152 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     List<User> findByIsAdminTrue();
 
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.id AS id, u.email AS email FROM User u WHERE u.organization.id = :orgId AND u.email IN :emails")
+    List<UserEmail> findUserEmailsByOrganizationIdAndEmailIn(@Param("orgId") Long orgId,
+                                                             @Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.id FROM User u WHERE u.organization.id = :orgId AND u.id IN :ids")
+    List<Long> findIdsByOrganizationIdAndIdIn(@Param("orgId") Long orgId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Set many reporting managers in one statement, the i-th elements of both arrays forming a pair
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "UPDATE users u SET reporting_manager_id = l.manager_id " +
+                   "FROM unnest(CAST(:userIds AS BIGINT[]), CAST(:managerIds AS BIGINT[])) AS l (user_id, manager_id) " +
+                   "WHERE u.id = l.user_id",
+           nativeQuery = true)
+    int updateReportingManagers(@Param("userIds") Long[] userIds, @Param("managerIds") Long[] managerIds);
+
+    /**
+     * Move every direct report of a manager to another manager, or to the top level when it is null
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "UPDATE users SET reporting_manager_id = :newManagerId WHERE reporting_manager_id = :managerId",
+           nativeQuery = true)
+    int reassignReports(@Param("managerId") Long managerId, @Param("newManagerId") Long newManagerId);
+
+    /*
+     * Organization export: one forward-only stream per aspect of a user, all in user ID order,
+     * so they can be merged by user ID without holding more than one user in memory
+     */
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email, u.isAdmin AS isAdmin, u.isActive AS isActive, " +
+           "u.reportingManagerId AS reportingManagerId FROM User u WHERE u.organization.id = :orgId ORDER BY u.id")
+    Stream<UserExportRow> streamExportRows(@Param("orgId") Long orgId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u.id AS userId, r.name AS label FROM User u JOIN u.roles r " +
+           "WHERE u.organization.id = :orgId ORDER BY u.id, r.name")
+    Stream<UserLabel> streamRoleNames(@Param("orgId") Long orgId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u.id AS userId, g.name AS label FROM User u JOIN u.groups g " +
+           "WHERE u.organization.id = :orgId ORDER BY u.id, g.name")
+    Stream<UserLabel> streamGroupNames(@Param("orgId") Long orgId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT uep.user_id AS \"userId\", p.permission_id AS \"label\" " +
+                   "FROM users u " +
+                   "JOIN user_effective_permissions uep ON uep.user_id = u.id " +
+                   "JOIN permissions p ON p.id = uep.permission_id " +
+                   "WHERE u.org_id = :orgId ORDER BY uep.user_id, p.permission_id",
+           nativeQuery = true)
+    Stream<UserLabel> streamEffectivePermissionIds(@Param("orgId") Long orgId);
+
+    /**
+     * Refresh the planner statistics of the users table, e.g. after a bulk load added a whole organization
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "ANALYZE users", nativeQuery = true)
+    void analyze();
+
+    String USER_BRIEF_SELECT = "SELECT u.id AS id, u.name AS name, u.email AS email, u.isAdmin AS isAdmin, " +
+                               "u.tokenVersion AS tokenVersion, SIZE(u.permissions) AS permissionsCount, " +
+                               "SIZE(u.roles) AS rolesCount, SIZE(u.groups) AS groupsCount FROM User u ";
+
+    @Query(USER_BRIEF_SELECT + "WHERE u.id > :after ORDER BY u.id")
+    List<UserBrief> findBriefsAfter(@Param("after") long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(USER_BRIEF_SELECT + "ORDER BY u.id")
+    Stream<UserBrief> streamBriefs();
+
+    @Query(USER_BRIEF_SELECT + "WHERE u.organization.id = :orgId ORDER BY u.id")
+    List<UserBrief> findBriefsByOrganizationId(@Param("orgId") Long orgId);
+
+    @Query(USER_BRIEF_SELECT + "WHERE u.isAdmin = true ORDER BY u.id")
+    List<UserBrief> findAdminBriefs();
+
     @Query("SELECT u FROM User u " +
     "WHERE u.reportingManagerId = (SELECT u2.reportingManagerId FROM User u2 WHERE u2.id = :userId) " +
     "AND u.id <> :userId")
     List<User> findColleagues(@Param("userId") Long userId);
 
-}
+    @Query("SELECT u.id AS id, u.reportingManagerId AS reportingManagerId FROM User u " +
+           "WHERE u.organization.id = :orgId ORDER BY u.id")
+    List<ReportingLine> findReportingLinesByOrganizationId(@Param("orgId") Long orgId);
+
+    @Query("SELECT u.id AS id, u.reportingManagerId AS reportingManagerId FROM User u WHERE u.id IN :ids")
+    List<ReportingLine> findReportingLinesByIdIn(@Param("ids") Collection<Long> ids);
 
+    /**
+     * Last ID of the next chunk of an organization's users in ID order, empty past the last user
+     */
+    @Query(value = "SELECT MAX(c.id) FROM (SELECT u.id FROM users u WHERE u.org_id = :orgId AND u.id > :after " +
+                   "ORDER BY u.id LIMIT :chunkSize) c",
+           nativeQuery = true)
+    Optional<Long> findChunkEndId(@Param("orgId") Long orgId,
+                                  @Param("after") long after,
+                                  @Param("chunkSize") int chunkSize);
+
+    @Query(value = "SELECT u.org_id FROM users u WHERE u.id = :userId", nativeQuery = true)
+    Optional<Long> findOrganizationIdById(@Param("userId") Long userId);
+
+    @Query(value = "SELECT ur.user_id FROM user_roles ur WHERE ur.role_id = :roleId", nativeQuery = true)
+    List<Long> findIdsByRoleId(@Param("roleId") Long roleId);
+
+    @Query(value = "SELECT ug.user_id FROM user_groups ug WHERE ug.group_id = :groupId", nativeQuery = true)
+    List<Long> findIdsByGroupId(@Param("groupId") Long groupId);
+
+    /**
+     * Grant permissions to a user by writing user_permissions directly, without loading the user's or the
+     * permissions' collections. Only rows actually inserted are counted in user_effective_permissions.
+     */
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions")})
+    @Query(value = "WITH added AS (" +
+                   "INSERT INTO user_permissions (user_id, permission_id) " +
+                   "SELECT :userId, p.id FROM permissions p WHERE p.id IN (:permissionIds) " +
+                   "AND NOT EXISTS (SELECT 1 FROM user_permissions x WHERE x.user_id = :userId AND x.permission_id = p.id) " +
+                   "ON CONFLICT DO NOTHING RETURNING permission_id) " +
+                   "INSERT INTO user_effective_permissions (user_id, permission_id, source_count) " +
+                   "SELECT :userId, added.permission_id, 1 FROM added " +
+                   "ON CONFLICT (user_id, permission_id) " +
+                   "DO UPDATE SET source_count = user_effective_permissions.source_count + 1",
+           nativeQuery = true)
+    int grantPermissions(@Param("userId") Long userId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * Revoke permissions from a user by deleting from user_permissions directly. Only rows actually deleted
+     * lose a source in user_effective_permissions; rows left without sources are dropped separately.
+     */
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_permissions"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_effective_permissions")})
+    @Query(value = "WITH removed AS (" +
+                   "DELETE FROM user_permissions WHERE user_id = :userId AND permission_id IN (:permissionIds) " +
+                   "RETURNING permission_id) " +
+                   "UPDATE user_effective_permissions uep SET source_count = uep.source_count - 1 " +
+                   "FROM removed WHERE uep.user_id = :userId AND uep.permission_id = removed.permission_id",
+           nativeQuery = true)
+    int revokePermissions(@Param("userId") Long userId, @Param("permissionIds") Collection<Long> permissionIds);
+}
@@ -0,0 +1,31 @@
+package com.apptware.auth.services;
+
+import com.apptware.auth.dto.permission.CacheRegionStatsDTO;
+
+import java.util.List;
+
+/**
+ * Second-level cache of the permission, role and group catalog
+ */
+public interface CatalogCacheService {
+    /**
+     * Drop the cached permissions of a role, e.g. after role_permissions was written with SQL
+     *
+     * @param roleId The role's database ID
+     */
+    void evictRolePermissions(Long roleId);
+
+    /**
+     * Drop the cached permissions of a group, e.g. after group_permissions was written with SQL
+     *
+     * @param groupId The group's database ID
+     */
+    void evictGroupPermissions(Long groupId);
+
+    /**
+     * Get hit/miss/put statistics of every catalog cache region
+     *
+     * @return The statistics, one entry per region
+     */
+    List<CacheRegionStatsDTO> getRegionStats();
+}
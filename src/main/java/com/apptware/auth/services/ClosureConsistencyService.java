@@ -0,0 +1,34 @@
+package com.apptware.auth.services;
+
+import com.apptware.auth.dto.hierarchy.ClosureConsistencyReportDTO;
+import com.apptware.auth.dto.hierarchy.OrganizationConsistencyResultDTO;
+
+/**
+ * Verifies that user_closure still matches users.reporting_manager_id. The expected closure is recomputed
+ * for one chunk of users at a time and diffed in SQL, so memory stays bounded by the chunk size, and chunks
+ * are paced so the check can run online against large organizations.
+ */
+public interface ClosureConsistencyService {
+    /**
+     * Check every organization, a bounded number of them in parallel. An organization already being
+     * checked on its own is reported as failed rather than checked twice.
+     *
+     * @param repair Also fix the drifted rows of each chunk
+     * @return Per-organization results and totals
+     * @throws com.apptware.auth.exceptions.OperationInProgressException if a check of all organizations is already running
+     */
+    ClosureConsistencyReportDTO verifyAll(boolean repair);
+
+    /**
+     * Check one organization chunk by chunk. Without repair each chunk is compared on a consistent snapshot
+     * and nothing is locked; with repair each chunk also takes the organization's hierarchy lock while its
+     * rows are fixed. Users caught in a reporting cycle are reported and left as they are, and so is a chunk
+     * holding a chain deeper than the depth limit, whose deeper rows would otherwise look extra.
+     *
+     * @param orgId The organization's database ID
+     * @param repair Also fix the drifted rows of each chunk
+     * @return The rows found missing, extra or at the wrong depth
+     * @throws com.apptware.auth.exceptions.OperationInProgressException if the organization is already being checked
+     */
+    OrganizationConsistencyResultDTO verifyOrganization(Long orgId, boolean repair);
+}
@@ -0,0 +1,73 @@
+package com.apptware.auth.services;
+
+import com.apptware.auth.dto.permission.EffectivePermissionCacheStatsDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers authorization checks from a precomputed, per-user bitset of effective permissions
+ * (direct ∪ role ∪ group) instead of walking the User/Role/Group entity graph
+ */
+public interface EffectivePermissionEngine {
+    /**
+     * Check if a user holds a permission directly, through a role, or through a group.
+     * Answered from the user's cached set, which a miss loads with a single query.
+     *
+     * @param userId The user's database ID
+     * @param permissionId The permission ID (e.g. "perm_123")
+     * @return true if the permission is part of the user's effective set
+     */
+    boolean hasPermission(Long userId, String permissionId);
+
+    /**
+     * Check many (user, permission) pairs at once. Warm users are answered from their cached sets,
+     * the remaining users with one set-wise query per chunk of users.
+     *
+     * @param requestedPermissionIds The permission IDs to check, keyed by user ID
+     * @return The subset of requested permission IDs each user is granted, keyed by user ID
+     */
+    Map<Long, Set<String>> findGrantedPermissions(Map<Long, Set<String>> requestedPermissionIds);
+
+    /**
+     * Get the database IDs of all permissions in a user's effective set
+     *
+     * @param userId The user's database ID
+     * @return The IDs of the user's effective permissions
+     */
+    List<Long> getEffectivePermissionIds(Long userId);
+
+    /**
+     * Drop the precomputed set of a single user, e.g. after a direct assignment change
+     *
+     * @param userId The user's database ID
+     */
+    void invalidateUser(Long userId);
+
+    /**
+     * Drop the precomputed sets of every user holding a role
+     *
+     * @param roleId The role's database ID
+     */
+    void invalidateRole(Long roleId);
+
+    /**
+     * Drop the precomputed sets of every member of a group
+     *
+     * @param groupId The group's database ID
+     */
+    void invalidateGroup(Long groupId);
+
+    /**
+     * Drop every precomputed set
+     */
+    void invalidateAll();
+
+    /**
+     * Get hit/miss/eviction statistics of the effective-permission cache
+     *
+     * @return The current cache statistics
+     */
+    EffectivePermissionCacheStatsDTO getCacheStats();
+}
@@ -2,9 +2,11 @@ package com.apptware.auth.services;
 
 import com.apptware.auth.models.Group;
 import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.projections.GroupSummary;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface GroupService {
     List<Group> findAll();
@@ -14,4 +16,18 @@ public interface GroupService {
     Group save(Group group);
     void deleteById(Long id);
     boolean existsByNameAndOrganization(String name, Organization organization);
+    
+    /**
+     * List groups in ID order, starting after a keyset cursor
+     * 
+     * @param after Only groups with a larger database ID are returned; 0 for the first page
+     * @param limit Maximum number of groups to return
+     */
+    List<GroupSummary> findSummariesAfter(long after, int limit);
+    
+    /**
+     * Feed every group in ID order to a consumer from a forward-only database cursor,
+     * so memory use does not grow with the table size
+     */
+    void streamSummaries(Consumer<GroupSummary> consumer);
 }
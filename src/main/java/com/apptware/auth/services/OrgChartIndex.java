@@ -0,0 +1,57 @@
+package com.apptware.auth.services;
+
+import java.util.Optional;
+
+/**
+ * Per-organization, in-memory view of the reporting hierarchy built from users.reporting_manager_id.
+ * Every user is numbered on an Euler tour of the org chart, so hierarchy checks are integer comparisons
+ * instead of user_closure lookups.
+ */
+public interface OrgChartIndex {
+    /**
+     * Get the indexed org chart of a user's organization. When the organization is not indexed yet
+     * (or no longer, after a change) it is loaded in the background and callers should answer
+     * from user_closure in the meantime.
+     *
+     * @param userId The user's database ID
+     * @return The org chart if it is warm and knows the user
+     */
+    Optional<OrgChart> findChart(Long userId);
+
+    /**
+     * Drop an organization's org chart once the surrounding transaction commits, e.g. after a manager change
+     *
+     * @param orgId The organization's database ID
+     */
+    void invalidateOrganization(Long orgId);
+
+    /**
+     * Drop every org chart
+     */
+    void invalidateAll();
+
+    /**
+     * Immutable snapshot of one organization's reporting hierarchy
+     */
+    interface OrgChart {
+        /**
+         * @return true if the user is placed in this chart. Users caught in a reporting cycle are not.
+         */
+        boolean contains(Long userId);
+
+        /**
+         * @return true if ancestorId is descendantId or one of their (transitive) managers
+         */
+        boolean isAncestor(Long ancestorId, Long descendantId);
+
+        /**
+         * @return true if both users have the same reporting manager
+         */
+        boolean areColleagues(Long userId1, Long userId2);
+
+        /**
+         * @return The number of users reporting to the user, directly or transitively
+         */
+        int countSubordinates(Long userId);
+    }
+}
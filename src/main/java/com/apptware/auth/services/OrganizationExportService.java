@@ -0,0 +1,21 @@
+package com.apptware.auth.services;
+
+import com.apptware.auth.dto.user.UserExportDTO;
+
+import java.util.function.Consumer;
+
+/**
+ * Full dumps of an organization's users for compliance and migration jobs
+ */
+public interface OrganizationExportService {
+    /**
+     * Feed every user of an organization, with role names, group names and effective permission IDs,
+     * to a consumer in user ID order. Four forward-only cursors (users, roles, groups, effective permissions)
+     * are merged by user ID on one snapshot, so memory use does not grow with the organization and
+     * no entity is loaded.
+     *
+     * @param orgId The organization's database ID
+     * @param consumer Receives the users one at a time
+     */
+    void exportUsers(Long orgId, Consumer<UserExportDTO> consumer);
+}
@@ -1,9 +1,12 @@
 package com.apptware.auth.services;
 
 import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.projections.OrganizationCounts;
+import com.apptware.auth.models.projections.OrganizationSummary;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface OrganizationService {
     List<Organization> findAll();
@@ -12,4 +15,27 @@ public interface OrganizationService {
     Organization save(Organization organization);
     void deleteById(Long id);
     boolean existsByName(String name);
+    
+    /**
+     * Count the users, roles and groups of an organization with a single aggregate query,
+     * without loading its collections
+     * 
+     * @param id The organization's database ID
+     * @return The counts, or empty if the organization does not exist
+     */
+    Optional<OrganizationCounts> findCountsById(Long id);
+    
+    /**
+     * List organizations in ID order, starting after a keyset cursor
+     * 
+     * @param after Only organizations with a larger database ID are returned; 0 for the first page
+     * @param limit Maximum number of organizations to return
+     */
+    List<OrganizationSummary> findSummariesAfter(long after, int limit);
+    
+    /**
+     * Feed every organization in ID order to a consumer from a forward-only database cursor,
+     * so memory use does not grow with the table size
+     */
+    void streamSummaries(Consumer<OrganizationSummary> consumer);
 }
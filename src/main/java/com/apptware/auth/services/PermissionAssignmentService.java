@@ -6,10 +6,12 @@ import com.apptware.auth.models.Role;
 import com.apptware.auth.models.User;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
- * Service for managing permission assignments to users, roles, and groups
+ * Service for managing permission assignments to users, roles, and groups.
+ * Assignments are written to the join tables directly, so neither side's collections are loaded.
  */
 public interface PermissionAssignmentService {
     /**
@@ -17,7 +19,7 @@ public interface PermissionAssignmentService {
      * 
      * @param user The user to assign permissions to
      * @param permissions The permissions to assign
-     * @return The updated user with assigned permissions
+     * @return The user; its loaded permissions collection is not refreshed
      */
     User assignPermissionsToUser(User user, Set<Permission> permissions);
     
@@ -26,7 +28,7 @@ public interface PermissionAssignmentService {
      * 
      * @param user The user to remove permissions from
      * @param permissions The permissions to remove
-     * @return The updated user with permissions removed
+     * @return The user; its loaded permissions collection is not refreshed
      */
     User removePermissionsFromUser(User user, Set<Permission> permissions);
     
@@ -51,7 +53,7 @@ public interface PermissionAssignmentService {
      * 
      * @param role The role to assign permissions to
      * @param permissions The permissions to assign
-     * @return The updated role with assigned permissions
+     * @return The role; its loaded permissions collection is not refreshed
      */
     Role assignPermissionsToRole(Role role, Set<Permission> permissions);
     
@@ -60,7 +62,7 @@ public interface PermissionAssignmentService {
      * 
      * @param role The role to remove permissions from
      * @param permissions The permissions to remove
-     * @return The updated role with permissions removed
+     * @return The role; its loaded permissions collection is not refreshed
      */
     Role removePermissionsFromRole(Role role, Set<Permission> permissions);
     
@@ -77,7 +79,7 @@ public interface PermissionAssignmentService {
      * 
      * @param group The group to assign permissions to
      * @param permissions The permissions to assign
-     * @return The updated group with assigned permissions
+     * @return The group; its loaded permissions collection is not refreshed
      */
     Group assignPermissionsToGroup(Group group, Set<Permission> permissions);
     
@@ -86,7 +88,7 @@ public interface PermissionAssignmentService {
      * 
      * @param group The group to remove permissions from
      * @param permissions The permissions to remove
-     * @return The updated group with permissions removed
+     * @return The group; its loaded permissions collection is not refreshed
      */
     Group removePermissionsFromGroup(Group group, Set<Permission> permissions);
     
@@ -106,4 +108,19 @@ public interface PermissionAssignmentService {
      * @return true if the user has the permission, false otherwise
      */
     boolean userHasPermission(User user, String permissionId);
+    
+    /**
+     * Check many (user, permission) pairs at once, loading memberships set-wise for the whole batch
+     * 
+     * @param requestedPermissionIds The permission IDs to check, keyed by user ID
+     * @return The subset of requested permission IDs each user has, keyed by user ID
+     */
+    Map<Long, Set<String>> findGrantedPermissions(Map<Long, Set<String>> requestedPermissionIds);
+    
+    /**
+     * Rebuild the materialized user_effective_permissions table from the grant tables, repairing any drift
+     * 
+     * @return The number of (user, permission) rows written
+     */
+    int rebuildEffectivePermissions();
 }
@@ -1,9 +1,14 @@
 package com.apptware.auth.services;
 
 import com.apptware.auth.models.Permission;
+import com.apptware.auth.models.projections.PermissionHolderCounts;
+import com.apptware.auth.models.projections.PermissionRow;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PermissionService {
     List<Permission> findAll();
@@ -11,6 +16,23 @@ public interface PermissionService {
     Optional<Permission> findByName(String name);
     Optional<Permission> findByPermissionId(String permissionId);
     
+    /**
+     * Find all permissions matching the given permission IDs in a single query.
+     * IDs without a matching permission are skipped.
+     * 
+     * @param permissionIds The permission IDs (e.g. "perm_123")
+     * @return The matching permissions
+     */
+    List<Permission> findAllByPermissionIdIn(Collection<String> permissionIds);
+    
+    /**
+     * Count the users, roles and groups holding each permission in a single query
+     * 
+     * @param ids The permissions' database IDs
+     * @return The holder counts, keyed by permission database ID
+     */
+    Map<Long, PermissionHolderCounts> findHolderCounts(Collection<Long> ids);
+    
     /**
      * Find permissions by resources and action
      * 
@@ -35,8 +57,24 @@ public interface PermissionService {
     boolean existsByResourcesAndAction(String[] resources, String action);
     
     /**
-     * Generates a unique permission ID in the format "perm_XXX"
+     * Generates a unique permission ID in the format "perm_N".
+     * Suffixes come from blocks reserved on the permission_id_seq sequence, so most calls
+     * do not touch the database and IDs never collide across nodes.
      * @return A new unique permission ID
      */
     String generatePermissionId();
+    
+    /**
+     * List permissions in ID order, starting after a keyset cursor
+     * 
+     * @param after Only permissions with a larger database ID are returned; 0 for the first page
+     * @param limit Maximum number of permissions to return
+     */
+    List<PermissionRow> findRowsAfter(long after, int limit);
+    
+    /**
+     * Feed every permission in ID order to a consumer from a forward-only database cursor,
+     * so memory use does not grow with the table size
+     */
+    void streamRows(Consumer<PermissionRow> consumer);
 }
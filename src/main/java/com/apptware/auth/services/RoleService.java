@@ -2,9 +2,11 @@ package com.apptware.auth.services;
 
 import com.apptware.auth.models.Organization;
 import com.apptware.auth.models.Role;
+import com.apptware.auth.models.projections.RoleSummary;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface RoleService {
     List<Role> findAll();
@@ -14,4 +16,18 @@ public interface RoleService {
     Role save(Role role);
     void deleteById(Long id);
     boolean existsByNameAndOrganization(String name, Organization organization);
+    
+    /**
+     * List roles in ID order, starting after a keyset cursor
+     * 
+     * @param after Only roles with a larger database ID are returned; 0 for the first page
+     * @param limit Maximum number of roles to return
+     */
+    List<RoleSummary> findSummariesAfter(long after, int limit);
+    
+    /**
+     * Feed every role in ID order to a consumer from a forward-only database cursor,
+     * so memory use does not grow with the table size
+     */
+    void streamSummaries(Consumer<RoleSummary> consumer);
 }
@@ -0,0 +1,48 @@
+package com.apptware.auth.services;
+
+import com.apptware.auth.dto.hierarchy.SpanOfControlStatusDTO;
+import com.apptware.auth.models.projections.LevelHeadcount;
+import com.apptware.auth.models.projections.ManagerSpan;
+
+import java.util.List;
+
+/**
+ * Span-of-control analytics served from materialized views aggregated from user_closure.
+ * Hierarchy changes mark the views stale; they are refreshed concurrently in the background
+ * at most once per refresh interval, so figures may lag behind changes by up to that interval.
+ */
+public interface SpanOfControlService {
+    /**
+     * List the managers of an organization with their direct and total report counts, one keyset page at a time
+     *
+     * @param orgId The organization's database ID
+     * @param after ID of the last manager of the previous page, 0 for the first page
+     * @param limit Maximum number of managers to return
+     */
+    List<ManagerSpan> findManagerSpanPage(Long orgId, long after, int limit);
+
+    /**
+     * Count the users at each level of an organization's hierarchy
+     *
+     * @param orgId The organization's database ID
+     * @return One entry per level, top level first
+     */
+    List<LevelHeadcount> findLevelHeadcounts(Long orgId);
+
+    /**
+     * Flag the views for refresh once the surrounding transaction commits, e.g. after a manager change
+     */
+    void markStale();
+
+    /**
+     * Refresh the views now, without blocking dashboard reads
+     *
+     * @return The freshness of the views after the refresh
+     */
+    SpanOfControlStatusDTO refresh();
+
+    /**
+     * @return The freshness of the views
+     */
+    SpanOfControlStatusDTO getStatus();
+}
@@ -1,7 +1,16 @@
 package com.apptware.auth.services;
 
+import com.apptware.auth.dto.hierarchy.ClosureRebuildReportDTO;
+import com.apptware.auth.dto.hierarchy.OrganizationRebuildResultDTO;
+import com.apptware.auth.dto.hierarchy.UserPairDTO;
+import com.apptware.auth.dto.hierarchy.UserRelationshipDTO;
 import com.apptware.auth.models.User;
+import com.apptware.auth.models.projections.CommonManager;
+import com.apptware.auth.models.projections.HierarchyMember;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface UserClosureService {
 
@@ -13,5 +22,144 @@ public interface UserClosureService {
 
     List<User> getColleagues(Long userId);
 
+    /**
+     * List a user's subordinates nearest first, one keyset page at a time
+     *
+     * @param ancestorId The manager's database ID
+     * @param maxDepth Only subordinates at most this many levels below the manager
+     * @param afterDepth Depth of the last subordinate of the previous page, 0 for the first page
+     * @param afterId ID of the last subordinate of the previous page, 0 for the first page
+     * @param limit Maximum number of subordinates to return
+     */
+    List<HierarchyMember> findSubordinatePage(Long ancestorId, int maxDepth, int afterDepth, long afterId, int limit);
+
+    /**
+     * List a user's management chain nearest manager first, one keyset page at a time
+     *
+     * @param descendantId The user's database ID
+     * @param maxDepth Only managers at most this many levels above the user
+     * @param afterDepth Depth of the last manager of the previous page, 0 for the first page
+     * @param limit Maximum number of managers to return
+     */
+    List<HierarchyMember> findAncestorPage(Long descendantId, int maxDepth, int afterDepth, int limit);
+
+    /**
+     * Get a user's whole management chain up to the top-level user, nearest manager first
+     *
+     * @param userId The user's database ID
+     * @return The user's managers, empty for a top-level user
+     */
+    List<HierarchyMember> getManagementChain(Long userId);
+
+    /**
+     * Find the nearest manager shared by two users with a single join over user_closure.
+     * When one user manages the other, that user is the nearest shared manager.
+     *
+     * @param userId The first user's database ID
+     * @param otherUserId The second user's database ID
+     * @return The nearest shared manager, or empty if the users are in separate hierarchies
+     */
+    Optional<CommonManager> findLowestCommonManager(Long userId, Long otherUserId);
+
+    /**
+     * Find the nearest shared manager of many pairs of users with a single query
+     *
+     * @param pairs The pairs of users
+     * @return The nearest shared manager of each pair having one
+     */
+    List<CommonManager> findLowestCommonManagers(List<UserPairDTO> pairs);
+
+    /**
+     * Count the users reporting to a user, directly or transitively
+     *
+     * @param userId The user's database ID
+     * @return The number of subordinates
+     */
+    long countSubordinates(Long userId);
+
     String determineRelationship(Long userId1, Long userId2);
+
+    /**
+     * Resolve how every user of a set relates to every other one, from one closure fetch restricted
+     * to the set and one fetch of their reporting managers
+     *
+     * @param userIds The users' database IDs
+     * @return For each existing user, the relationship to each other existing user, keyed by user ID;
+     *         IDs that match no user are left out
+     */
+    Map<Long, Map<Long, UserRelationshipDTO>> resolveRelationships(Collection<Long> userIds);
+
+    /**
+     * Bring a user's closure rows in line with their reporting manager, in the caller's transaction.
+     * Ensures the user's self row, then relinks the user's whole subtree below the new manager
+     * with set-based statements.
+     *
+     * @param userId The user's database ID
+     * @param managerId The reporting manager's database ID, or null for a top-level user
+     */
+    void syncReportingManager(Long userId, Long managerId);
+
+    /**
+     * Move a user that was saved with a new organization out of the old organization's hierarchy and into
+     * the new one. The user's reports stay behind and move up to the user's old manager; the manager,
+     * if any, must belong to the new organization.
+     *
+     * @param userId The user's database ID
+     * @param previousOrgId The organization the user belonged to before the change
+     * @param managerId The user's reporting manager, or null for a top-level user
+     * @throws IllegalArgumentException if the manager does not exist or belongs to another organization
+     */
+    void moveToOrganization(Long userId, Long previousOrgId, Long managerId);
+
+    /**
+     * Move a user, with everyone reporting to them, below a new manager. The closure is updated with
+     * two set-based statements whatever the subtree size: paths crossing the old boundary are deleted,
+     * then the new ancestors are cross-joined with the moved subtree.
+     *
+     * @param userId The database ID of the user to move
+     * @param newManagerId The new manager's database ID, or null to make the user top-level
+     * @return The number of users moved, including the user
+     * @throws IllegalArgumentException If the user or manager does not exist, they belong to different
+     *         organizations, or the move would create a reporting cycle
+     */
+    long reparent(Long userId, Long newManagerId);
+
+    /**
+     * Add users created in bulk to their organization's hierarchy, after their reporting managers were set.
+     * Only the new users' rows are written, from the stored rows of the existing managers they report to,
+     * so the cost follows the number of new users rather than the organization's size.
+     *
+     * @param orgId The organization the users were created in
+     * @param userIds The new users' database IDs; their reporting links must not form a cycle
+     * @return The number of closure rows written
+     */
+    long addNewUsers(Long orgId, Collection<Long> userIds);
+
+    /**
+     * Regenerate the closure rows of every organization from users.reporting_manager_id.
+     * Organizations are rebuilt in parallel on a bounded pool, each in its own transaction.
+     *
+     * @return Per-organization results and overall throughput
+     * @throws com.apptware.auth.exceptions.OperationInProgressException if a rebuild of all organizations is already running
+     */
+    ClosureRebuildReportDTO rebuildAll();
+
+    /**
+     * Regenerate one organization's closure rows from users.reporting_manager_id with a recursive CTE
+     * into a staging table, then swap them in within the same transaction. An organization with a
+     * reporting cycle or a chain deeper than the configured limit keeps its current rows.
+     *
+     * @param orgId The organization's database ID
+     * @return The outcome, including the number of rows written
+     */
+    OrganizationRebuildResultDTO rebuildOrganization(Long orgId);
+
+    /**
+     * Take a user that is about to be deleted out of the hierarchy: the user's direct reports move up to
+     * the user's manager (or to the top level), their subtrees keep their shape one level higher,
+     * and every closure row of the user is dropped
+     *
+     * @param userId The user's database ID
+     */
+    void removeUser(Long userId);
 }
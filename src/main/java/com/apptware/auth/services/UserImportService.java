@@ -0,0 +1,24 @@
+package com.apptware.auth.services;
+
+import com.apptware.auth.dto.user.UserImportResultDTO;
+import com.apptware.auth.dto.user.UserImportRowDTO;
+
+import java.util.Iterator;
+
+/**
+ * Creates many users of one organization from a stream of rows
+ */
+public interface UserImportService {
+    /**
+     * Import users chunk by chunk as the rows are read. Each chunk is validated, checked for emails already
+     * in use with one query, has its passwords hashed on a bounded pool and is inserted in JDBC batches.
+     * Reporting managers are linked once every row is in, then the closure rows of the new users, and only
+     * theirs, are written in one pass. Invalid rows are reported and skipped; an unreadable row ends the import
+     * after the rows before it.
+     *
+     * @param orgId The organization's database ID
+     * @param rows The rows, read lazily
+     * @return Counts and per-row errors
+     */
+    UserImportResultDTO importUsers(Long orgId, Iterator<UserImportRowDTO> rows);
+}
@@ -2,9 +2,11 @@ package com.apptware.auth.services;
 
 import com.apptware.auth.models.Organization;
 import com.apptware.auth.models.User;
+import com.apptware.auth.models.projections.UserBrief;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
     List<User> findAll();
@@ -15,4 +17,31 @@ public interface UserService {
     void deleteById(Long id);
     boolean existsByEmail(String email);
     List<User> findAdminUsers();
+    
+    
+    /**
+     * List the users of an organization with their permission/role/group counts in a single query
+     * 
+     * @param orgId The organization's database ID
+     */
+    List<UserBrief> findBriefsByOrganizationId(Long orgId);
+    
+    /**
+     * List admin users with their permission/role/group counts in a single query
+     */
+    List<UserBrief> findAdminBriefs();
+    
+    /**
+     * List users in ID order, starting after a keyset cursor
+     * 
+     * @param after Only users with a larger database ID are returned; 0 for the first page
+     * @param limit Maximum number of users to return
+     */
+    List<UserBrief> findBriefsAfter(long after, int limit);
+    
+    /**
+     * Feed every user in ID order to a consumer from a forward-only database cursor,
+     * so memory use does not grow with the table size
+     */
+    void streamBriefs(Consumer<UserBrief> consumer);
 }
@@ -0,0 +1,77 @@
+package com.apptware.auth.services.impl;
+
+import com.apptware.auth.config.CatalogCacheConfig;
+import com.apptware.auth.dto.permission.CacheRegionStatsDTO;
+import com.apptware.auth.models.Group;
+import com.apptware.auth.models.Role;
+import com.apptware.auth.services.CatalogCacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+@Service
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+    private static final String ROLE_PERMISSIONS = Role.class.getName() + ".permissions";
+    private static final String GROUP_PERMISSIONS = Group.class.getName() + ".permissions";
+
+    private final SessionFactory sessionFactory;
+    private final long maximumSize;
+    private final Duration expireAfterWrite;
+
+    public CatalogCacheServiceImpl(
+            EntityManagerFactory entityManagerFactory,
+            @Value("${auth.catalog-cache.maximum-size:10000}") long maximumSize,
+            @Value("${auth.catalog-cache.expire-after-write:1h}") Duration expireAfterWrite) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    @Override
+    public void evictRolePermissions(Long roleId) {
+        evictCollection(ROLE_PERMISSIONS, roleId);
+    }
+
+    @Override
+    public void evictGroupPermissions(Long groupId) {
+        evictCollection(GROUP_PERMISSIONS, groupId);
+    }
+
+    @Override
+    public List<CacheRegionStatsDTO> getRegionStats() {
+        return CatalogCacheConfig.REGIONS.stream()
+                .map(region -> CacheRegionStatsDTO.fromStats(
+                        region,
+                        sessionFactory.getStatistics().getDomainDataRegionStatistics(region),
+                        maximumSize,
+                        expireAfterWrite.toSeconds()))
+                .toList();
+    }
+
+    private void evictCollection(String role, Long ownerId) {
+        // Evict now so this transaction reloads the rows it wrote, and again after commit so a concurrent
+        // reader cannot re-cache the rows as they were before it
+        sessionFactory.getCache().evictCollectionData(role, ownerId);
+        afterCommit(() -> sessionFactory.getCache().evictCollectionData(role, ownerId));
+    }
+
+    /**
+     * Run an eviction once the surrounding transaction has committed
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
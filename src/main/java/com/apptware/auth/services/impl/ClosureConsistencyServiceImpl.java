@@ -0,0 +1,215 @@
+package com.apptware.auth.services.impl;
+
+import com.apptware.auth.dto.hierarchy.ClosureConsistencyReportDTO;
+import com.apptware.auth.dto.hierarchy.OrganizationConsistencyResultDTO;
+import com.apptware.auth.exceptions.OperationInProgressException;
+import com.apptware.auth.models.projections.ClosureDrift;
+import com.apptware.auth.repositories.OrganizationRepository;
+import com.apptware.auth.repositories.UserClosureRepository;
+import com.apptware.auth.repositories.UserRepository;
+import com.apptware.auth.services.ClosureConsistencyService;
+import com.apptware.auth.services.OrgChartIndex;
+import com.apptware.auth.services.SpanOfControlService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class ClosureConsistencyServiceImpl implements ClosureConsistencyService {
+    private final UserClosureRepository userClosureRepository;
+    private final UserRepository userRepository;
+    private final OrganizationRepository organizationRepository;
+    private final OrgChartIndex orgChartIndex;
+    private final SpanOfControlService spanOfControlService;
+    private final TransactionTemplate checkTemplate;
+    private final TransactionTemplate repairTemplate;
+    private final int chunkSize;
+    private final Duration pauseBetweenChunks;
+    private final int driftSampleSize;
+    private final int maxDepth;
+
+    // Shared by all checks, so concurrent requests cannot multiply the scans running against the database
+    private final ExecutorService verifyPool;
+    private final AtomicBoolean verifyAllRunning = new AtomicBoolean();
+    private final Set<Long> organizationsInProgress = ConcurrentHashMap.newKeySet();
+
+    public ClosureConsistencyServiceImpl(
+            UserClosureRepository userClosureRepository,
+            UserRepository userRepository,
+            OrganizationRepository organizationRepository,
+            OrgChartIndex orgChartIndex,
+            SpanOfControlService spanOfControlService,
+            PlatformTransactionManager transactionManager,
+            @Value("${auth.hierarchy.verify.chunk-size:1000}") int chunkSize,
+            @Value("${auth.hierarchy.verify.pause-between-chunks:20ms}") Duration pauseBetweenChunks,
+            @Value("${auth.hierarchy.verify.parallelism:2}") int parallelism,
+            @Value("${auth.hierarchy.verify.drift-sample-size:100}") int driftSampleSize,
+            @Value("${auth.hierarchy.rebuild.max-depth:64}") int maxDepth) {
+        this.userClosureRepository = userClosureRepository;
+        this.userRepository = userRepository;
+        this.organizationRepository = organizationRepository;
+        this.orgChartIndex = orgChartIndex;
+        this.spanOfControlService = spanOfControlService;
+        // A check compares staged and stored rows over several statements, all on one snapshot
+        this.checkTemplate = new TransactionTemplate(transactionManager);
+        this.checkTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        // A repair takes the organization's hierarchy lock first, so it must see rows committed while it waited
+        this.repairTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pauseBetweenChunks = pauseBetweenChunks;
+        this.driftSampleSize = driftSampleSize;
+        this.maxDepth = maxDepth;
+        this.verifyPool = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "closure-verify");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        verifyPool.shutdownNow();
+    }
+
+    @Override
+    public ClosureConsistencyReportDTO verifyAll(boolean repair) {
+        if (!verifyAllRunning.compareAndSet(false, true)) {
+            throw new OperationInProgressException("A check of all organizations is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            List<CompletableFuture<OrganizationConsistencyResultDTO>> futures = organizationRepository.findAllIds()
+                    .stream()
+                    .map(orgId -> CompletableFuture.supplyAsync(() -> verifyIfIdle(orgId, repair), verifyPool))
+                    .toList();
+            List<OrganizationConsistencyResultDTO> results = futures.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+            return ClosureConsistencyReportDTO.fromResults(results, elapsedMillis(started));
+        } finally {
+            verifyAllRunning.set(false);
+        }
+    }
+
+    @Override
+    public OrganizationConsistencyResultDTO verifyOrganization(Long orgId, boolean repair) {
+        if (!organizationsInProgress.add(orgId)) {
+            throw new OperationInProgressException("A check of organization " + orgId + " is already running");
+        }
+        try {
+            return check(orgId, repair);
+        } finally {
+            organizationsInProgress.remove(orgId);
+        }
+    }
+
+    /**
+     * Check one organization as part of a full run; one already being checked on its own is reported, not rechecked
+     */
+    private OrganizationConsistencyResultDTO verifyIfIdle(Long orgId, boolean repair) {
+        try {
+            return verifyOrganization(orgId, repair);
+        } catch (OperationInProgressException e) {
+            return OrganizationConsistencyResultDTO.builder()
+                    .organizationId(orgId)
+                    .success(false)
+                    .message(e.getMessage())
+                    .driftedUserIds(new ArrayList<>())
+                    .build();
+        }
+    }
+
+    private OrganizationConsistencyResultDTO check(Long orgId, boolean repair) {
+        long started = System.nanoTime();
+        OrganizationConsistencyResultDTO result = OrganizationConsistencyResultDTO.builder()
+                .organizationId(orgId)
+                .success(true)
+                .driftedUserIds(new ArrayList<>())
+                .build();
+        try {
+            long after = 0;
+            Optional<Long> chunkEnd;
+            while ((chunkEnd = userRepository.findChunkEndId(orgId, after, chunkSize)).isPresent()) {
+                long afterId = after;
+                long lastId = chunkEnd.get();
+                (repair ? repairTemplate : checkTemplate).executeWithoutResult(
+                        status -> verifyChunk(orgId, afterId, lastId, repair, result));
+                after = lastId;
+                TimeUnit.MILLISECONDS.sleep(pauseBetweenChunks.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setSuccess(false);
+            result.setMessage("Interrupted after " + result.getUsersChecked() + " users");
+        } catch (RuntimeException e) {
+            result.setSuccess(false);
+            result.setMessage(e.getMessage());
+        }
+        result.setElapsedMillis(elapsedMillis(started));
+        return result;
+    }
+
+    /**
+     * Stage the expected rows of the users with afterId < id <= lastId, diff them with the stored rows
+     * and add the differences to the result. The staging table is dropped when the transaction ends.
+     */
+    private void verifyChunk(Long orgId, long afterId, long lastId, boolean repair,
+                             OrganizationConsistencyResultDTO result) {
+        if (repair) {
+            userClosureRepository.lockOrganization(orgId);
+        }
+        userClosureRepository.createStagingTable();
+        userClosureRepository.fillStagingRange(orgId, afterId, lastId, maxDepth);
+
+        result.setUsersChecked(result.getUsersChecked() + userClosureRepository.countStagedUsers());
+        result.setCycleUsers(result.getCycleUsers() + userClosureRepository.countStagedCycleUsers());
+
+        // Rows beyond the depth limit were not staged, so stored ones would look extra and a repair would
+        // delete valid ancestry; such a chunk is reported and left alone, as a rebuild refuses it
+        long truncatedChains = userClosureRepository.countStagedTruncatedChains(orgId, maxDepth);
+        if (truncatedChains > 0) {
+            result.setTruncatedChains(result.getTruncatedChains() + truncatedChains);
+            return;
+        }
+
+        ClosureDrift drift = userClosureRepository.countStagedDrift(orgId, afterId, lastId);
+        long driftedRows = drift.getMissingRows() + drift.getMismatchedDepthRows() + drift.getExtraRows();
+
+        result.setMissingRows(result.getMissingRows() + drift.getMissingRows());
+        result.setMismatchedDepthRows(result.getMismatchedDepthRows() + drift.getMismatchedDepthRows());
+        result.setExtraRows(result.getExtraRows() + drift.getExtraRows());
+
+        int sampleRoom = driftSampleSize - result.getDriftedUserIds().size();
+        if (driftedRows > 0 && sampleRoom > 0) {
+            result.getDriftedUserIds().addAll(
+                    userClosureRepository.findStagedDriftUserIds(orgId, afterId, lastId, sampleRoom));
+        }
+
+        if (repair && driftedRows > 0) {
+            long repairedRows = userClosureRepository.deleteStagedDrift(orgId, afterId, lastId)
+                    + userClosureRepository.insertMissingFromStaging();
+            result.setRepairedRows(result.getRepairedRows() + repairedRows);
+            orgChartIndex.invalidateOrganization(orgId);
+            spanOfControlService.markStale();
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+}
@@ -0,0 +1,273 @@
+package com.apptware.auth.services.impl;
+
+import com.apptware.auth.dto.permission.EffectivePermissionCacheStatsDTO;
+import com.apptware.auth.models.projections.PermissionKey;
+import com.apptware.auth.models.projections.UserPermissionGrant;
+import com.apptware.auth.repositories.PermissionRepository;
+import com.apptware.auth.repositories.UserEffectivePermissionRepository;
+import com.apptware.auth.repositories.UserRepository;
+import com.apptware.auth.services.EffectivePermissionEngine;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class EffectivePermissionEngineImpl implements EffectivePermissionEngine {
+    // Users resolved per set-wise query in batch checks, keeps bind parameters well below driver limits
+    private static final int BATCH_CHUNK_SIZE = 1000;
+
+    private final PermissionRepository permissionRepository;
+    private final UserEffectivePermissionRepository userEffectivePermissionRepository;
+    private final UserRepository userRepository;
+
+    private final PermissionIndex index = new PermissionIndex();
+    private final Cache<Long, BitSet> effectiveSets;
+    private final long maximumSize;
+    private final Duration expireAfterWrite;
+
+    // Bumped on every invalidation so that a set computed from pre-change rows is never cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public EffectivePermissionEngineImpl(
+            PermissionRepository permissionRepository,
+            UserEffectivePermissionRepository userEffectivePermissionRepository,
+            UserRepository userRepository,
+            @Value("${auth.permissions.effective-cache.maximum-size:100000}") long maximumSize,
+            @Value("${auth.permissions.effective-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.permissionRepository = permissionRepository;
+        this.userEffectivePermissionRepository = userEffectivePermissionRepository;
+        this.userRepository = userRepository;
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite;
+        this.effectiveSets = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public boolean hasPermission(Long userId, String permissionId) {
+        // A miss loads the user's whole set once, so their following checks are bit tests
+        BitSet bits = effectiveSet(userId);
+
+        // Every permission in a cached set was indexed while the set was built,
+        // so an unknown permission ID cannot be granted
+        int slot = index.slotOf(permissionId);
+        return slot >= 0 && bits.get(slot);
+    }
+
+    @Override
+    public Map<Long, Set<String>> findGrantedPermissions(Map<Long, Set<String>> requestedPermissionIds) {
+        Map<Long, Set<String>> granted = new HashMap<>();
+        List<Long> coldUserIds = new ArrayList<>();
+
+        requestedPermissionIds.forEach((userId, permissionIds) -> {
+            Set<String> userGranted = new HashSet<>();
+            granted.put(userId, userGranted);
+
+            BitSet cached = effectiveSets.getIfPresent(userId);
+            if (cached == null) {
+                coldUserIds.add(userId);
+                return;
+            }
+            for (String permissionId : permissionIds) {
+                int slot = index.slotOf(permissionId);
+                if (slot >= 0 && cached.get(slot)) {
+                    userGranted.add(permissionId);
+                }
+            }
+        });
+
+        for (int from = 0; from < coldUserIds.size(); from += BATCH_CHUNK_SIZE) {
+            List<Long> chunk = coldUserIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, coldUserIds.size()));
+            Set<String> chunkPermissionIds = new HashSet<>();
+            for (Long userId : chunk) {
+                chunkPermissionIds.addAll(requestedPermissionIds.get(userId));
+            }
+            for (UserPermissionGrant grant
+                    : userEffectivePermissionRepository.findGrantedPermissions(
+                            chunk, chunkPermissionIds.toArray(String[]::new))) {
+                // The query covers the union of requested permissions, keep only what this user asked for
+                if (requestedPermissionIds.get(grant.getUserId()).contains(grant.getPermissionId())) {
+                    granted.get(grant.getUserId()).add(grant.getPermissionId());
+                }
+            }
+        }
+        return granted;
+    }
+
+    @Override
+    public List<Long> getEffectivePermissionIds(Long userId) {
+        BitSet bits = effectiveSet(userId);
+        List<Long> ids = new ArrayList<>(bits.cardinality());
+        for (int slot = bits.nextSetBit(0); slot >= 0; slot = bits.nextSetBit(slot + 1)) {
+            ids.add(index.idAt(slot));
+        }
+        return ids;
+    }
+
+    @Override
+    public void invalidateUser(Long userId) {
+        invalidateUsers(List.of(userId));
+    }
+
+    @Override
+    public void invalidateRole(Long roleId) {
+        // Always look the members up: the cache may be empty now, yet a concurrent reader can still
+        // cache a member's pre-change set before this transaction commits
+        invalidateUsers(userRepository.findIdsByRoleId(roleId));
+    }
+
+    @Override
+    public void invalidateGroup(Long groupId) {
+        invalidateUsers(userRepository.findIdsByGroupId(groupId));
+    }
+
+    @Override
+    public void invalidateAll() {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            effectiveSets.invalidateAll();
+        });
+    }
+
+    @Override
+    public EffectivePermissionCacheStatsDTO getCacheStats() {
+        return EffectivePermissionCacheStatsDTO.fromStats(
+                effectiveSets.stats(),
+                effectiveSets.estimatedSize(),
+                maximumSize,
+                expireAfterWrite.toSeconds(),
+                generation.get());
+    }
+
+    private void invalidateUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            effectiveSets.invalidateAll(userIds);
+        });
+    }
+
+    /**
+     * Get the cached effective set of a user, computing it with a single query on a miss.
+     * Cached bitsets are never mutated once published; entries are bounded by size and age.
+     */
+    private BitSet effectiveSet(Long userId) {
+        BitSet cached = effectiveSets.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long observedGeneration = generation.get();
+        List<Long> permissionIds = userEffectivePermissionRepository.findPermissionIdsByUserId(userId);
+        BitSet bits = new BitSet(index.size());
+        for (Long permissionId : permissionIds) {
+            int slot = index.slotOf(permissionId);
+            if (slot < 0) {
+                refreshIndex();
+                slot = index.slotOf(permissionId);
+            }
+            if (slot >= 0) {
+                bits.set(slot);
+            }
+        }
+
+        if (generation.get() == observedGeneration) {
+            effectiveSets.asMap().putIfAbsent(userId, bits);
+        }
+        return bits;
+    }
+
+    private void refreshIndex() {
+        for (PermissionKey key : permissionRepository.findAllKeys()) {
+            index.register(key.getId(), key.getPermissionId());
+        }
+    }
+
+    /**
+     * Run an invalidation once the surrounding transaction has committed, so a concurrent
+     * reader cannot re-cache rows that are about to change
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Assigns every permission a dense, stable slot number so effective sets can be stored as bitsets.
+     * Slots are never reused; writes are serialized while lookups stay lock-free.
+     */
+    static final class PermissionIndex {
+        private final Map<Long, Integer> slotsById = new ConcurrentHashMap<>();
+        private final Map<String, Integer> slotsByPermissionId = new ConcurrentHashMap<>();
+        private volatile long[] idsBySlot = new long[64];
+        private volatile int size;
+
+        int slotOf(Long id) {
+            Integer slot = slotsById.get(id);
+            return slot != null ? slot : -1;
+        }
+
+        int slotOf(String permissionId) {
+            Integer slot = slotsByPermissionId.get(permissionId);
+            return slot != null ? slot : -1;
+        }
+
+        long idAt(int slot) {
+            return idsBySlot[slot];
+        }
+
+        int size() {
+            return size;
+        }
+
+        synchronized int register(Long id, String permissionId) {
+            Integer existing = slotsById.get(id);
+            if (existing != null) {
+                return existing;
+            }
+
+            int slot = size;
+            long[] ids = idsBySlot;
+            if (slot == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[slot] = id;
+            idsBySlot = ids;
+            size = slot + 1;
+
+            // Publish the slot only after its id is visible to readers
+            slotsById.put(id, slot);
+            slotsByPermissionId.put(permissionId, slot);
+            return slot;
+        }
+    }
+}
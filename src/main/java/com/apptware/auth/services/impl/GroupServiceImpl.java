@@ -2,18 +2,29 @@ package com.apptware.auth.services.impl;
 
 import com.apptware.auth.models.Group;
 import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.projections.GroupSummary;
 import com.apptware.auth.repositories.GroupRepository;
+import com.apptware.auth.repositories.UserEffectivePermissionRepository;
+import com.apptware.auth.services.CatalogCacheService;
+import com.apptware.auth.services.EffectivePermissionEngine;
 import com.apptware.auth.services.GroupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class GroupServiceImpl implements GroupService {
     private final GroupRepository groupRepository;
+    private final UserEffectivePermissionRepository userEffectivePermissionRepository;
+    private final EffectivePermissionEngine effectivePermissionEngine;
+    private final CatalogCacheService catalogCacheService;
 
     @Override
     public List<Group> findAll() {
@@ -36,12 +47,24 @@ public class GroupServiceImpl implements GroupService {
     }
 
     @Override
+    @Transactional
     public Group save(Group group) {
-        return groupRepository.save(group);
+        Group saved = groupRepository.save(group);
+        // A detached group may be merged with a permission set other than the cached one
+        catalogCacheService.evictGroupPermissions(saved.getId());
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
+        // group_permissions and user_groups do not cascade from groups, so the members' effective permissions
+        // are revoked and their memberships removed before the group itself goes
+        effectivePermissionEngine.invalidateGroup(id);
+        groupRepository.revokeAllPermissions(id);
+        catalogCacheService.evictGroupPermissions(id);
+        userEffectivePermissionRepository.deleteGroupMembersExhausted(id);
+        groupRepository.deleteMemberships(id);
         groupRepository.deleteById(id);
     }
 
@@ -49,4 +72,17 @@ public class GroupServiceImpl implements GroupService {
     public boolean existsByNameAndOrganization(String name, Organization organization) {
         return groupRepository.existsByNameAndOrganization(name, organization);
     }
+
+    @Override
+    public List<GroupSummary> findSummariesAfter(long after, int limit) {
+        return groupRepository.findSummariesAfter(after, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSummaries(Consumer<GroupSummary> consumer) {
+        try (Stream<GroupSummary> rows = groupRepository.streamSummaries()) {
+            rows.forEach(consumer);
+        }
+    }
 }
@@ -0,0 +1,270 @@
+package com.apptware.auth.services.impl;
+
+import com.apptware.auth.models.projections.ReportingLine;
+import com.apptware.auth.repositories.UserRepository;
+import com.apptware.auth.services.OrgChartIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Org charts are rebuilt whole, one organization at a time: a reporting change drops that organization's
+ * chart after commit and the next lookup reloads it in the background. Patching a chart in place would
+ * still renumber every interval after the changed subtree, so a per-organization reload costs about the
+ * same and cannot drift from user_closure.
+ */
+@Slf4j
+@Service
+public class OrgChartIndexImpl implements OrgChartIndex {
+    // Pending background loads; further cold lookups are answered from user_closure without queueing a load
+    private static final int WARM_QUEUE_CAPACITY = 1000;
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, EulerTourChart> chartsByOrganization = new ConcurrentHashMap<>();
+    private final Map<Long, Long> organizationByUser = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor warmer;
+
+    // Bumped on every invalidation of an organization so that a chart loaded from pre-change rows is never published
+    private final Map<Long, Long> generationByOrganization = new ConcurrentHashMap<>();
+
+    public OrgChartIndexImpl(UserRepository userRepository) {
+        this.userRepository = userRepository;
+        this.warmer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(WARM_QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "org-chart-warmer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        warmer.shutdownNow();
+    }
+
+    @Override
+    public Optional<OrgChart> findChart(Long userId) {
+        Long orgId = organizationByUser.get(userId);
+        EulerTourChart chart = orgId != null ? chartsByOrganization.get(orgId) : null;
+        if (chart != null && chart.knows(userId)) {
+            return Optional.of(chart);
+        }
+        warmer.execute(() -> warm(userId));
+        return Optional.empty();
+    }
+
+    @Override
+    public void invalidateOrganization(Long orgId) {
+        afterCommit(() -> evict(orgId));
+    }
+
+    @Override
+    public void invalidateAll() {
+        afterCommit(() -> generationByOrganization.keySet().forEach(this::evict));
+    }
+
+    /**
+     * Drop an organization's chart and its users' entries, and outdate any load of it still in flight
+     */
+    private void evict(Long orgId) {
+        generationByOrganization.compute(orgId, (id, generation) -> {
+            forget(id, chartsByOrganization.remove(id));
+            return generation != null ? generation + 1 : 1;
+        });
+    }
+
+    private void forget(Long orgId, EulerTourChart chart) {
+        if (chart != null) {
+            for (long id : chart.ids) {
+                organizationByUser.remove(id, orgId);
+            }
+        }
+    }
+
+    /**
+     * Load the chart of a user's organization, unless an earlier queued load already did
+     */
+    private void warm(Long userId) {
+        try {
+            Long orgId = userRepository.findOrganizationIdById(userId).orElse(null);
+            if (orgId == null) {
+                return;
+            }
+            EulerTourChart current = chartsByOrganization.get(orgId);
+            if (current != null && current.knows(userId)) {
+                return;
+            }
+
+            long observedGeneration = generationByOrganization.computeIfAbsent(orgId, id -> 0L);
+            List<ReportingLine> lines = userRepository.findReportingLinesByOrganizationId(orgId);
+            long[] ids = new long[lines.size()];
+            long[] managerIds = new long[lines.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ReportingLine line = lines.get(i);
+                ids[i] = line.getId();
+                managerIds[i] = line.getReportingManagerId() != null ? line.getReportingManagerId() : 0;
+            }
+            EulerTourChart chart = EulerTourChart.build(ids, managerIds);
+
+            // Published under the organization's entry, so an invalidation cannot slip in between check and put
+            generationByOrganization.computeIfPresent(orgId, (id, generation) -> {
+                if (generation == observedGeneration) {
+                    forget(id, chartsByOrganization.put(id, chart));
+                    for (long member : ids) {
+                        organizationByUser.put(member, id);
+                    }
+                }
+                return generation;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not load the org chart for user {}", userId, e);
+        }
+    }
+
+    /**
+     * Run an invalidation once the surrounding transaction has committed, so a concurrent
+     * load cannot publish rows that are about to change
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Org chart numbered by a depth-first (Euler) tour. Every user gets an interval [enter, exit] that
+     * spans exactly the intervals of everyone reporting to them, so ancestry is two integer comparisons
+     * and subtree size is the interval width. Users are addressed by their position in the sorted ID array.
+     */
+    static final class EulerTourChart implements OrgChart {
+        private final long[] ids;
+        private final long[] managerIds;  // 0 when the user has no manager
+        private final int[] enter;  // -1 for users not reachable from a top-level user (reporting cycles)
+        private final int[] exit;
+
+        private EulerTourChart(long[] ids, long[] managerIds, int[] enter, int[] exit) {
+            this.ids = ids;
+            this.managerIds = managerIds;
+            this.enter = enter;
+            this.exit = exit;
+        }
+
+        /**
+         * @param ids User IDs in ascending order
+         * @param managerIds Each user's reporting manager ID, 0 for none
+         */
+        static EulerTourChart build(long[] ids, long[] managerIds) {
+            int n = ids.length;
+
+            // Parent slots; a manager outside the organization makes the user top-level
+            int[] parent = new int[n];
+            int[] childStart = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                int slot = managerIds[i] != 0 ? Arrays.binarySearch(ids, managerIds[i]) : -1;
+                parent[i] = slot >= 0 ? slot : -1;
+                if (parent[i] >= 0) {
+                    childStart[parent[i] + 1]++;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                childStart[i + 1] += childStart[i];
+            }
+            int[] children = new int[childStart[n]];
+            int[] fill = Arrays.copyOf(childStart, n);
+            for (int i = 0; i < n; i++) {
+                if (parent[i] >= 0) {
+                    children[fill[parent[i]]++] = i;
+                }
+            }
+
+            // Iterative depth-first tour from every top-level user
+            int[] enter = new int[n];
+            int[] exit = new int[n];
+            Arrays.fill(enter, -1);
+            int[] stack = new int[n];
+            int[] nextChild = new int[n];
+            int counter = 0;
+            for (int root = 0; root < n; root++) {
+                if (parent[root] >= 0) {
+                    continue;
+                }
+                int top = 0;
+                stack[top] = root;
+                enter[root] = counter++;
+                nextChild[root] = childStart[root];
+                while (top >= 0) {
+                    int node = stack[top];
+                    if (nextChild[node] < childStart[node + 1]) {
+                        int child = children[nextChild[node]++];
+                        enter[child] = counter++;
+                        nextChild[child] = childStart[child];
+                        stack[++top] = child;
+                    } else {
+                        exit[node] = counter - 1;
+                        top--;
+                    }
+                }
+            }
+            return new EulerTourChart(ids, managerIds, enter, exit);
+        }
+
+        boolean knows(Long userId) {
+            return slotOf(userId) >= 0;
+        }
+
+        @Override
+        public boolean contains(Long userId) {
+            int slot = slotOf(userId);
+            return slot >= 0 && enter[slot] >= 0;
+        }
+
+        @Override
+        public boolean isAncestor(Long ancestorId, Long descendantId) {
+            int ancestor = slotOf(ancestorId);
+            int descendant = slotOf(descendantId);
+            if (ancestor < 0 || descendant < 0 || enter[ancestor] < 0 || enter[descendant] < 0) {
+                return false;
+            }
+            return enter[ancestor] <= enter[descendant] && enter[descendant] <= exit[ancestor];
+        }
+
+        @Override
+        public boolean areColleagues(Long userId1, Long userId2) {
+            int slot1 = slotOf(userId1);
+            int slot2 = slotOf(userId2);
+            return slot1 >= 0 && slot2 >= 0 && managerIds[slot1] != 0 && managerIds[slot1] == managerIds[slot2];
+        }
+
+        @Override
+        public int countSubordinates(Long userId) {
+            int slot = slotOf(userId);
+            return slot >= 0 && enter[slot] >= 0 ? exit[slot] - enter[slot] : 0;
+        }
+
+        private int slotOf(Long userId) {
+            int slot = userId != null ? Arrays.binarySearch(ids, userId) : -1;
+            return slot >= 0 ? slot : -1;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.apptware.auth.services.impl;
+
+import com.apptware.auth.dto.user.UserExportDTO;
+import com.apptware.auth.models.projections.UserExportRow;
+import com.apptware.auth.models.projections.UserLabel;
+import com.apptware.auth.repositories.UserRepository;
+import com.apptware.auth.services.OrganizationExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class OrganizationExportServiceImpl implements OrganizationExportService {
+    private final UserRepository userRepository;
+
+    @Override
+    // One snapshot for all four cursors, so a user changed mid-export is seen the same way by each of them
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportUsers(Long orgId, Consumer<UserExportDTO> consumer) {
+        try (Stream<UserExportRow> users = userRepository.streamExportRows(orgId);
+             Stream<UserLabel> roleNames = userRepository.streamRoleNames(orgId);
+             Stream<UserLabel> groupNames = userRepository.streamGroupNames(orgId);
+             Stream<UserLabel> permissionIds = userRepository.streamEffectivePermissionIds(orgId)) {
+            LabelCursor roles = new LabelCursor(roleNames.iterator());
+            LabelCursor groups = new LabelCursor(groupNames.iterator());
+            LabelCursor permissions = new LabelCursor(permissionIds.iterator());
+
+            users.forEach(user -> consumer.accept(UserExportDTO.fromRow(user,
+                    roles.takeLabels(user.getId()),
+                    groups.takeLabels(user.getId()),
+                    permissions.takeLabels(user.getId()))));
+        }
+    }
+
+    /**
+     * Walks a label stream ordered by user ID alongside the user stream
+     */
+    private static final class LabelCursor {
+        private final Iterator<UserLabel> labels;
+        private UserLabel next;
+
+        private LabelCursor(Iterator<UserLabel> labels) {
+            this.labels = labels;
+            this.next = labels.hasNext() ? labels.next() : null;
+        }
+
+        /**
+         * Consume the labels of a user; labels of users before it in ID order are skipped
+         */
+        private List<String> takeLabels(Long userId) {
+            List<String> taken = new ArrayList<>();
+            while (next != null && next.getUserId() <= userId) {
+                if (next.getUserId().equals(userId)) {
+                    taken.add(next.getLabel());
+                }
+                next = labels.hasNext() ? labels.next() : null;
+            }
+            return taken;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.apptware.auth.services.impl;
 
 import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.projections.OrganizationCounts;
+import com.apptware.auth.models.projections.OrganizationSummary;
 import com.apptware.auth.repositories.OrganizationRepository;
 import com.apptware.auth.services.OrganizationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -43,4 +49,22 @@ public class OrganizationServiceImpl implements OrganizationService {
     public boolean existsByName(String name) {
         return organizationRepository.existsByName(name);
     }
+
+    @Override
+    public Optional<OrganizationCounts> findCountsById(Long id) {
+        return organizationRepository.findCountsById(id);
+    }
+
+    @Override
+    public List<OrganizationSummary> findSummariesAfter(long after, int limit) {
+        return organizationRepository.findSummariesAfter(after, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSummaries(Consumer<OrganizationSummary> consumer) {
+        try (Stream<OrganizationSummary> rows = organizationRepository.streamSummaries()) {
+            rows.forEach(consumer);
+        }
+    }
 }
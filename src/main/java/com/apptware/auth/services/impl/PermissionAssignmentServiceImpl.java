@@ -5,15 +5,19 @@ import com.apptware.auth.models.Permission;
 import com.apptware.auth.models.Role;
 import com.apptware.auth.models.User;
 import com.apptware.auth.repositories.GroupRepository;
-
+import com.apptware.auth.repositories.PermissionRepository;
 import com.apptware.auth.repositories.RoleRepository;
+import com.apptware.auth.repositories.UserEffectivePermissionRepository;
 import com.apptware.auth.repositories.UserRepository;
+import com.apptware.auth.services.CatalogCacheService;
+import com.apptware.auth.services.EffectivePermissionEngine;
 import com.apptware.auth.services.PermissionAssignmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,25 +25,27 @@ public class PermissionAssignmentServiceImpl implements PermissionAssignmentServ
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final GroupRepository groupRepository;
-    // PermissionRepository not currently needed but may be used in future extensions
-    // private final PermissionRepository permissionRepository;
+    private final PermissionRepository permissionRepository;
+    private final UserEffectivePermissionRepository userEffectivePermissionRepository;
+    private final EffectivePermissionEngine effectivePermissionEngine;
+    private final CatalogCacheService catalogCacheService;
 
     @Override
     @Transactional
     public User assignPermissionsToUser(User user, Set<Permission> permissions) {
-        for (Permission permission : permissions) {
-            permission.assignToUser(user);
-        }
-        return userRepository.save(user);
+        userRepository.grantPermissions(user.getId(), ids(permissions));
+        effectivePermissionEngine.invalidateUser(user.getId());
+        return user;
     }
 
     @Override
     @Transactional
     public User removePermissionsFromUser(User user, Set<Permission> permissions) {
-        for (Permission permission : permissions) {
-            permission.removeFromUser(user);
-        }
-        return userRepository.save(user);
+        Set<Long> permissionIds = ids(permissions);
+        userRepository.revokePermissions(user.getId(), permissionIds);
+        userEffectivePermissionRepository.deleteUserExhausted(user.getId(), permissionIds);
+        effectivePermissionEngine.invalidateUser(user.getId());
+        return user;
     }
 
     @Override
@@ -52,51 +58,31 @@ public class PermissionAssignmentServiceImpl implements PermissionAssignmentServ
 
     @Override
     public List<Permission> getUserEffectivePermissions(User user) {
-        // Use a set to avoid duplicates
-        Set<Permission> allPermissions = new HashSet<>();
-        
-        // Add direct user permissions
-        if (user.getPermissions() != null) {
-            allPermissions.addAll(user.getPermissions());
-        }
-        
-        // Add permissions from roles
-        if (user.getRoles() != null) {
-            for (Role role : user.getRoles()) {
-                if (role.getPermissions() != null) {
-                    allPermissions.addAll(role.getPermissions());
-                }
-            }
-        }
-        
-        // Add permissions from groups
-        if (user.getGroups() != null) {
-            for (Group group : user.getGroups()) {
-                if (group.getPermissions() != null) {
-                    allPermissions.addAll(group.getPermissions());
-                }
-            }
+        List<Long> permissionIds = effectivePermissionEngine.getEffectivePermissionIds(user.getId());
+        if (permissionIds.isEmpty()) {
+            return Collections.emptyList();
         }
-        
-        return new ArrayList<>(allPermissions);
+        return permissionRepository.findAllById(permissionIds);
     }
 
     @Override
     @Transactional
     public Role assignPermissionsToRole(Role role, Set<Permission> permissions) {
-        for (Permission permission : permissions) {
-            permission.assignToRole(role);
-        }
-        return roleRepository.save(role);
+        roleRepository.grantPermissions(role.getId(), ids(permissions));
+        catalogCacheService.evictRolePermissions(role.getId());
+        effectivePermissionEngine.invalidateRole(role.getId());
+        return role;
     }
 
     @Override
     @Transactional
     public Role removePermissionsFromRole(Role role, Set<Permission> permissions) {
-        for (Permission permission : permissions) {
-            permission.removeFromRole(role);
-        }
-        return roleRepository.save(role);
+        Set<Long> permissionIds = ids(permissions);
+        roleRepository.revokePermissions(role.getId(), permissionIds);
+        catalogCacheService.evictRolePermissions(role.getId());
+        userEffectivePermissionRepository.deleteRoleExhausted(role.getId(), permissionIds);
+        effectivePermissionEngine.invalidateRole(role.getId());
+        return role;
     }
 
     @Override
@@ -110,19 +96,21 @@ public class PermissionAssignmentServiceImpl implements PermissionAssignmentServ
     @Override
     @Transactional
     public Group assignPermissionsToGroup(Group group, Set<Permission> permissions) {
-        for (Permission permission : permissions) {
-            permission.assignToGroup(group);
-        }
-        return groupRepository.save(group);
+        groupRepository.grantPermissions(group.getId(), ids(permissions));
+        catalogCacheService.evictGroupPermissions(group.getId());
+        effectivePermissionEngine.invalidateGroup(group.getId());
+        return group;
     }
 
     @Override
     @Transactional
     public Group removePermissionsFromGroup(Group group, Set<Permission> permissions) {
-        for (Permission permission : permissions) {
-            permission.removeFromGroup(group);
-        }
-        return groupRepository.save(group);
+        Set<Long> permissionIds = ids(permissions);
+        groupRepository.revokePermissions(group.getId(), permissionIds);
+        catalogCacheService.evictGroupPermissions(group.getId());
+        userEffectivePermissionRepository.deleteGroupExhausted(group.getId(), permissionIds);
+        effectivePermissionEngine.invalidateGroup(group.getId());
+        return group;
     }
 
     @Override
@@ -135,6 +123,29 @@ public class PermissionAssignmentServiceImpl implements PermissionAssignmentServ
 
     @Override
     public boolean userHasPermission(User user, String permissionId) {
-        return user.hasPermission(permissionId);
+        return effectivePermissionEngine.hasPermission(user.getId(), permissionId);
+    }
+
+    @Override
+    public Map<Long, Set<String>> findGrantedPermissions(Map<Long, Set<String>> requestedPermissionIds) {
+        return effectivePermissionEngine.findGrantedPermissions(requestedPermissionIds);
+    }
+
+    @Override
+    @Transactional
+    public int rebuildEffectivePermissions() {
+        userEffectivePermissionRepository.deleteAllRows();
+        int rows = userEffectivePermissionRepository.insertAllFromGrants();
+        effectivePermissionEngine.invalidateAll();
+        return rows;
+    }
+    
+    private static Set<Long> ids(Set<Permission> permissions) {
+        if (permissions == null) {
+            return Collections.emptySet();
+        }
+        return permissions.stream()
+                .map(Permission::getId)
+                .collect(Collectors.toSet());
     }
 }
@@ -1,21 +1,43 @@
 package com.apptware.auth.services.impl;
 
 import com.apptware.auth.models.Permission;
+import com.apptware.auth.models.projections.PermissionHolderCounts;
+import com.apptware.auth.models.projections.PermissionRow;
 import com.apptware.auth.repositories.PermissionRepository;
+import com.apptware.auth.services.CatalogCacheService;
+import com.apptware.auth.services.EffectivePermissionEngine;
 import com.apptware.auth.services.PermissionService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PermissionServiceImpl implements PermissionService {
+    // Must match the INCREMENT BY of permission_id_seq
+    private static final int PERMISSION_ID_BLOCK_SIZE = 50;
+    
     private final PermissionRepository permissionRepository;
-    private final Random random = new Random();
+    private final CatalogCacheService catalogCacheService;
+    private final EffectivePermissionEngine effectivePermissionEngine;
+    private final EntityManager entityManager;
+    
+    // Current block of reserved permission ID suffixes: [nextSuffix, blockEnd)
+    private long nextSuffix;
+    private long blockEnd;
 
     @Override
     public List<Permission> findAll() {
@@ -33,8 +55,29 @@ public class PermissionServiceImpl implements PermissionService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public Optional<Permission> findByPermissionId(String permissionId) {
-        return permissionRepository.findByPermissionId(permissionId);
+        // Resolved through the natural-ID and entity caches before querying
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Permission.class)
+                .loadOptional(permissionId);
+    }
+    
+    @Override
+    public List<Permission> findAllByPermissionIdIn(Collection<String> permissionIds) {
+        if (permissionIds.isEmpty()) {
+            return List.of();
+        }
+        return permissionRepository.findAllByPermissionIdIn(permissionIds);
+    }
+    
+    @Override
+    public Map<Long, PermissionHolderCounts> findHolderCounts(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return permissionRepository.findHolderCounts(ids).stream()
+                .collect(Collectors.toMap(PermissionHolderCounts::getId, Function.identity()));
     }
     
     @Override
@@ -74,8 +117,15 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
+        // Cached role and group permission sets would otherwise still reference the deleted permission
+        permissionRepository.findRoleIdsById(id).forEach(catalogCacheService::evictRolePermissions);
+        permissionRepository.findGroupIdsById(id).forEach(catalogCacheService::evictGroupPermissions);
+        permissionRepository.deleteGrants(id);
         permissionRepository.deleteById(id);
+        // Deleting a permission is rare, and its holders' rows in user_effective_permissions cascade away
+        effectivePermissionEngine.invalidateAll();
     }
 
     @Override
@@ -107,14 +157,25 @@ public class PermissionServiceImpl implements PermissionService {
     }
     
     @Override
-    public String generatePermissionId() {
-        String permissionId;
-        do {
-            // Generate a random number between 100 and 999
-            int randomNum = 100 + random.nextInt(900);
-            permissionId = "perm_" + randomNum;
-        } while (existsByPermissionId(permissionId));
-        
-        return permissionId;
+    public synchronized String generatePermissionId() {
+        if (nextSuffix >= blockEnd) {
+            // Block used up, reserve the next one
+            nextSuffix = permissionRepository.nextPermissionIdBlock();
+            blockEnd = nextSuffix + PERMISSION_ID_BLOCK_SIZE;
+        }
+        return "perm_" + nextSuffix++;
+    }
+
+    @Override
+    public List<PermissionRow> findRowsAfter(long after, int limit) {
+        return permissionRepository.findRowsAfter(after, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRows(Consumer<PermissionRow> consumer) {
+        try (Stream<PermissionRow> rows = permissionRepository.streamRows()) {
+            rows.forEach(consumer);
+        }
     }
 }
@@ -2,18 +2,29 @@ package com.apptware.auth.services.impl;
 
 import com.apptware.auth.models.Organization;
 import com.apptware.auth.models.Role;
+import com.apptware.auth.models.projections.RoleSummary;
 import com.apptware.auth.repositories.RoleRepository;
+import com.apptware.auth.repositories.UserEffectivePermissionRepository;
+import com.apptware.auth.services.CatalogCacheService;
+import com.apptware.auth.services.EffectivePermissionEngine;
 import com.apptware.auth.services.RoleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
+    private final UserEffectivePermissionRepository userEffectivePermissionRepository;
+    private final EffectivePermissionEngine effectivePermissionEngine;
+    private final CatalogCacheService catalogCacheService;
 
     @Override
     public List<Role> findAll() {
@@ -36,12 +47,24 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Transactional
     public Role save(Role role) {
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        // A detached role may be merged with a permission set other than the cached one
+        catalogCacheService.evictRolePermissions(saved.getId());
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
+        // role_permissions and user_roles do not cascade from roles, so the members' effective permissions
+        // are revoked and their memberships removed before the role itself goes
+        effectivePermissionEngine.invalidateRole(id);
+        roleRepository.revokeAllPermissions(id);
+        catalogCacheService.evictRolePermissions(id);
+        userEffectivePermissionRepository.deleteRoleMembersExhausted(id);
+        roleRepository.deleteMemberships(id);
         roleRepository.deleteById(id);
     }
 
@@ -49,4 +72,17 @@ public class RoleServiceImpl implements RoleService {
     public boolean existsByNameAndOrganization(String name, Organization organization) {
         return roleRepository.existsByNameAndOrganization(name, organization);
     }
+
+    @Override
+    public List<RoleSummary> findSummariesAfter(long after, int limit) {
+        return roleRepository.findSummariesAfter(after, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSummaries(Consumer<RoleSummary> consumer) {
+        try (Stream<RoleSummary> rows = roleRepository.streamSummaries()) {
+            rows.forEach(consumer);
+        }
+    }
 }
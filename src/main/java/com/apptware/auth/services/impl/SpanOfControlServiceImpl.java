@@ -0,0 +1,122 @@
+package com.apptware.auth.services.impl;
+
+import com.apptware.auth.dto.hierarchy.SpanOfControlStatusDTO;
+import com.apptware.auth.models.projections.LevelHeadcount;
+import com.apptware.auth.models.projections.ManagerSpan;
+import com.apptware.auth.repositories.UserClosureRepository;
+import com.apptware.auth.services.SpanOfControlService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class SpanOfControlServiceImpl implements SpanOfControlService {
+    private final UserClosureRepository userClosureRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService refresher;
+
+    // Starts stale: the views may predate changes made before this instance started
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private volatile LocalDateTime lastRefreshedAt;
+    private volatile long lastRefreshMillis;
+
+    public SpanOfControlServiceImpl(
+            UserClosureRepository userClosureRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${auth.hierarchy.span-of-control.refresh-interval:30s}") Duration refreshInterval) {
+        this.userClosureRepository = userClosureRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refreshInterval = refreshInterval;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "span-of-control-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshIfStale, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public List<ManagerSpan> findManagerSpanPage(Long orgId, long after, int limit) {
+        return userClosureRepository.findManagerSpanPage(orgId, after, limit);
+    }
+
+    @Override
+    public List<LevelHeadcount> findLevelHeadcounts(Long orgId) {
+        return userClosureRepository.findLevelHeadcounts(orgId);
+    }
+
+    @Override
+    public void markStale() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale.set(true);
+                }
+            });
+        } else {
+            stale.set(true);
+        }
+    }
+
+    @Override
+    public synchronized SpanOfControlStatusDTO refresh() {
+        long started = System.nanoTime();
+        // Cleared first, so a change committed while the refresh runs triggers another one
+        stale.set(false);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userClosureRepository.refreshManagerSpans();
+                userClosureRepository.refreshLevelHeadcounts();
+            });
+        } catch (RuntimeException e) {
+            stale.set(true);
+            throw e;
+        }
+        lastRefreshMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        lastRefreshedAt = LocalDateTime.now();
+        return getStatus();
+    }
+
+    @Override
+    public SpanOfControlStatusDTO getStatus() {
+        return SpanOfControlStatusDTO.builder()
+                .stale(stale.get())
+                .lastRefreshedAt(lastRefreshedAt)
+                .lastRefreshMillis(lastRefreshMillis)
+                .refreshIntervalSeconds(refreshInterval.toSeconds())
+                .build();
+    }
+
+    private void refreshIfStale() {
+        if (!stale.get()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the span-of-control views", e);
+        }
+    }
+}
@@ -1,30 +1,139 @@
 package com.apptware.auth.services.impl;
 
+import com.apptware.auth.dto.hierarchy.ClosureRebuildReportDTO;
+import com.apptware.auth.dto.hierarchy.OrganizationRebuildResultDTO;
+import com.apptware.auth.dto.hierarchy.RelationshipType;
+import com.apptware.auth.dto.hierarchy.UserPairDTO;
+import com.apptware.auth.dto.hierarchy.UserRelationshipDTO;
+import com.apptware.auth.exceptions.OperationInProgressException;
 import com.apptware.auth.models.User;
+import com.apptware.auth.models.projections.ClosurePath;
+import com.apptware.auth.models.projections.CommonManager;
+import com.apptware.auth.models.projections.HierarchyMember;
+import com.apptware.auth.models.projections.ReportingLine;
+import com.apptware.auth.repositories.OrganizationRepository;
 import com.apptware.auth.repositories.UserClosureRepository;
 import com.apptware.auth.repositories.UserRepository;
+import com.apptware.auth.services.OrgChartIndex.OrgChart;
+import com.apptware.auth.services.OrgChartIndex;
+import com.apptware.auth.services.SpanOfControlService;
 import com.apptware.auth.services.UserClosureService;
+import jakarta.annotation.PreDestroy;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class UserClosureServiceImpl implements UserClosureService {
 
     private final UserClosureRepository userClosureRepository;
     private final UserRepository userRepository;
+    private final OrganizationRepository organizationRepository;
+    private final OrgChartIndex orgChartIndex;
+    private final SpanOfControlService spanOfControlService;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildMaxDepth;
 
-    public UserClosureServiceImpl(UserClosureRepository userClosureRepository, UserRepository userRepository) {
+    // Shared by every rebuild, so parallelism stays bounded however often the rebuild is requested
+    private final ExecutorService rebuildPool;
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+
+    public UserClosureServiceImpl(
+            UserClosureRepository userClosureRepository,
+            UserRepository userRepository,
+            OrganizationRepository organizationRepository,
+            OrgChartIndex orgChartIndex,
+            SpanOfControlService spanOfControlService,
+            PlatformTransactionManager transactionManager,
+            @Value("${auth.hierarchy.rebuild.parallelism:4}") int rebuildParallelism,
+            @Value("${auth.hierarchy.rebuild.max-depth:64}") int rebuildMaxDepth) {
         this.userClosureRepository = userClosureRepository;
         this.userRepository = userRepository;
+        this.organizationRepository = organizationRepository;
+        this.orgChartIndex = orgChartIndex;
+        this.spanOfControlService = spanOfControlService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildMaxDepth = rebuildMaxDepth;
+        this.rebuildPool = Executors.newFixedThreadPool(Math.max(1, rebuildParallelism), runnable -> {
+            Thread thread = new Thread(runnable, "closure-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildPool.shutdownNow();
     }
 
     @Override
     public boolean isUserAHigherUp(Long potentialManagerId, Long potentialSubordinateId) {
+        Optional<OrgChart> chart = chartContaining(potentialManagerId, potentialSubordinateId);
+        if (chart.isPresent()) {
+            return chart.get().isAncestor(potentialManagerId, potentialSubordinateId);
+        }
         return userClosureRepository.isAncestor(potentialManagerId, potentialSubordinateId);
     }
 
+    @Override
+    public List<HierarchyMember> findSubordinatePage(Long ancestorId, int maxDepth, int afterDepth, long afterId, int limit) {
+        return userClosureRepository.findSubordinatePage(ancestorId, maxDepth, afterDepth, afterId, limit);
+    }
+
+    @Override
+    public List<HierarchyMember> findAncestorPage(Long descendantId, int maxDepth, int afterDepth, int limit) {
+        return userClosureRepository.findAncestorPage(descendantId, maxDepth, afterDepth, limit);
+    }
+
+    @Override
+    public List<HierarchyMember> getManagementChain(Long userId) {
+        return userClosureRepository.findManagementChain(userId);
+    }
+
+    @Override
+    public Optional<CommonManager> findLowestCommonManager(Long userId, Long otherUserId) {
+        return userClosureRepository.findLowestCommonManager(userId, otherUserId);
+    }
+
+    @Override
+    public List<CommonManager> findLowestCommonManagers(List<UserPairDTO> pairs) {
+        if (pairs.isEmpty()) {
+            return List.of();
+        }
+        Long[] userIds = new Long[pairs.size()];
+        Long[] otherUserIds = new Long[pairs.size()];
+        for (int i = 0; i < pairs.size(); i++) {
+            userIds[i] = pairs.get(i).getUserId();
+            otherUserIds[i] = pairs.get(i).getOtherUserId();
+        }
+        return userClosureRepository.findLowestCommonManagers(userIds, otherUserIds);
+    }
+
+    @Override
+    public long countSubordinates(Long userId) {
+        Optional<OrgChart> chart = chartContaining(userId, userId);
+        if (chart.isPresent()) {
+            return chart.get().countSubordinates(userId);
+        }
+        // The user's own depth-0 row is part of the closure subtree
+        return Math.max(0, userClosureRepository.countSubtree(userId) - 1);
+    }
+
     @Override
     public List<User> getSubordinates(Long ancestorId) {
         return userClosureRepository.findSubordinates(ancestorId);
@@ -42,6 +151,11 @@ public class UserClosureServiceImpl implements UserClosureService {
 
     @Override
     public String determineRelationship(Long userId1, Long userId2) {
+        Optional<OrgChart> chart = chartContaining(userId1, userId2);
+        if (chart.isPresent()) {
+            return describeRelationship(chart.get(), userId1, userId2);
+        }
+
         // Check if userId1 is an ancestor (higher-up) of userId2
         if(userClosureRepository.isAncestor(userId1, userId2)) {
             return "User " + userId1 + " is higher up than User " + userId2;
@@ -64,4 +178,253 @@ public class UserClosureServiceImpl implements UserClosureService {
         }
         return "No direct hierarchical relationship found between User " + userId1 + " and User " + userId2;
     }
+
+    @Override
+    public Map<Long, Map<Long, UserRelationshipDTO>> resolveRelationships(Collection<Long> userIds) {
+        Map<Long, Map<Long, UserRelationshipDTO>> matrix = new LinkedHashMap<>();
+        if (userIds.isEmpty()) {
+            return matrix;
+        }
+
+        Map<Long, Long> managerIds = new HashMap<>();
+        for (ReportingLine line : userRepository.findReportingLinesByIdIn(userIds)) {
+            managerIds.put(line.getId(), line.getReportingManagerId());
+        }
+        // Unknown IDs get no row and appear in no other row
+        List<Long> knownUserIds = userIds.stream().filter(managerIds::containsKey).distinct().toList();
+
+        // Start from colleague/none, then overlay the ancestry paths found among the set
+        for (Long userId : knownUserIds) {
+            Map<Long, UserRelationshipDTO> row = new LinkedHashMap<>();
+            Long managerId = managerIds.get(userId);
+            for (Long otherUserId : knownUserIds) {
+                if (userId.equals(otherUserId)) {
+                    continue;
+                }
+                boolean colleagues = managerId != null && managerId.equals(managerIds.get(otherUserId));
+                row.put(otherUserId, UserRelationshipDTO.builder()
+                        .relationship(colleagues ? RelationshipType.COLLEAGUE : RelationshipType.NONE)
+                        .build());
+            }
+            matrix.put(userId, row);
+        }
+
+        for (ClosurePath path : userClosureRepository.findPathsAmong(userIds)) {
+            matrix.get(path.getAncestorId()).put(path.getDescendantId(), UserRelationshipDTO.builder()
+                    .relationship(RelationshipType.ANCESTOR)
+                    .depth(path.getDepth())
+                    .build());
+            matrix.get(path.getDescendantId()).put(path.getAncestorId(), UserRelationshipDTO.builder()
+                    .relationship(RelationshipType.SUBORDINATE)
+                    .depth(path.getDepth())
+                    .build());
+        }
+        return matrix;
+    }
+
+    private static String describeRelationship(OrgChart chart, Long userId1, Long userId2) {
+        if (chart.isAncestor(userId1, userId2)) {
+            return "User " + userId1 + " is higher up than User " + userId2;
+        } else if (chart.isAncestor(userId2, userId1)) {
+            return "User " + userId1 + " is subordinate to User " + userId2;
+        } else if (chart.areColleagues(userId1, userId2)) {
+            return "User " + userId1 + " and User " + userId2 + " are colleagues";
+        }
+        return "No direct hierarchical relationship found between User " + userId1 + " and User " + userId2;
+    }
+
+    /**
+     * Get the warm org chart placing both users, or empty if the answer has to come from user_closure
+     */
+    private Optional<OrgChart> chartContaining(Long userId1, Long userId2) {
+        Optional<OrgChart> chart = orgChartIndex.findChart(userId1);
+        if (!userId1.equals(userId2)) {
+            // Also warms the second user's organization when it differs
+            Optional<OrgChart> other = orgChartIndex.findChart(userId2);
+            if (other.isEmpty() || other.get() != chart.orElse(null)) {
+                return Optional.empty();
+            }
+        }
+        return chart.filter(c -> c.contains(userId1) && c.contains(userId2));
+    }
+
+    @Override
+    @Transactional
+    public void syncReportingManager(Long userId, Long managerId) {
+        Long orgId = userRepository.findOrganizationIdById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User " + userId + " does not exist"));
+        moveSubtree(userId, orgId, managerId);
+    }
+
+    @Override
+    @Transactional
+    public void moveToOrganization(Long userId, Long previousOrgId, Long managerId) {
+        Long orgId = userRepository.findOrganizationIdById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User " + userId + " does not exist"));
+        // Lock both organizations in ID order, so opposite moves cannot deadlock
+        userClosureRepository.lockOrganization(Math.min(previousOrgId, orgId));
+        userClosureRepository.lockOrganization(Math.max(previousOrgId, orgId));
+
+        detachUser(userId);
+        orgChartIndex.invalidateOrganization(previousOrgId);
+        orgChartIndex.invalidateOrganization(orgId);
+        moveSubtree(userId, orgId, managerId);
+        spanOfControlService.markStale();
+    }
+
+    @Override
+    @Transactional
+    public long reparent(Long userId, Long newManagerId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User " + userId + " does not exist"));
+        moveSubtree(userId, user.getOrganizationId(), newManagerId);
+        user.setReportingManagerId(newManagerId);
+        return userClosureRepository.countSubtree(userId);
+    }
+
+    @Override
+    @Transactional
+    public long addNewUsers(Long orgId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        userClosureRepository.lockOrganization(orgId);
+        long rows = userClosureRepository.insertForNewUsers(userIds.toArray(Long[]::new), rebuildMaxDepth);
+        orgChartIndex.invalidateOrganization(orgId);
+        spanOfControlService.markStale();
+        return rows;
+    }
+
+    @Override
+    public ClosureRebuildReportDTO rebuildAll() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            throw new OperationInProgressException("A rebuild of all organizations is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            List<CompletableFuture<OrganizationRebuildResultDTO>> futures = organizationRepository.findAllIds().stream()
+                    .map(orgId -> CompletableFuture.supplyAsync(() -> rebuildOrganization(orgId), rebuildPool))
+                    .toList();
+            List<OrganizationRebuildResultDTO> results = futures.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+            return ClosureRebuildReportDTO.fromResults(results, elapsedMillis(started));
+        } finally {
+            rebuildRunning.set(false);
+        }
+    }
+
+    @Override
+    public OrganizationRebuildResultDTO rebuildOrganization(Long orgId) {
+        long started = System.nanoTime();
+        try {
+            // One transaction per organization: the staged rows replace the old ones only if every check passes
+            Integer rows = transactionTemplate.execute(status -> {
+                userClosureRepository.lockOrganization(orgId);
+                userClosureRepository.createStagingTable();
+                userClosureRepository.fillStaging(orgId, rebuildMaxDepth);
+
+                long cycleUsers = userClosureRepository.countStagedCycleUsers();
+                if (cycleUsers > 0) {
+                    throw new IllegalStateException(
+                            cycleUsers + " users have a management chain that runs into a reporting cycle");
+                }
+                if (userClosureRepository.countStagedTruncatedChains(orgId, rebuildMaxDepth) > 0) {
+                    throw new IllegalStateException(
+                            "Management chains are deeper than the limit of " + rebuildMaxDepth + " levels");
+                }
+
+                userClosureRepository.deleteByOrganizationId(orgId);
+                orgChartIndex.invalidateOrganization(orgId);
+                spanOfControlService.markStale();
+                return userClosureRepository.insertFromStaging();
+            });
+            return OrganizationRebuildResultDTO.builder()
+                    .organizationId(orgId)
+                    .success(true)
+                    .rows(rows != null ? rows : 0)
+                    .elapsedMillis(elapsedMillis(started))
+                    .build();
+        } catch (RuntimeException e) {
+            return OrganizationRebuildResultDTO.builder()
+                    .organizationId(orgId)
+                    .success(false)
+                    .message(e.getMessage())
+                    .elapsedMillis(elapsedMillis(started))
+                    .build();
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    /**
+     * Relink a user's subtree below a new manager. Rows inside the subtree are left untouched,
+     * so the cost is two statements regardless of how many users report to the user.
+     */
+    private void moveSubtree(Long userId, Long orgId, Long newManagerId) {
+        userClosureRepository.lockOrganization(orgId);
+        if (userClosureRepository.insertSelf(userId) > 0) {
+            // A new top-level user changes the headcount per level
+            spanOfControlService.markStale();
+        }
+
+        Long currentManagerId = userClosureRepository.findManagerId(userId).orElse(null);
+        if (Objects.equals(currentManagerId, newManagerId)) {
+            return;
+        }
+        if (newManagerId != null) {
+            validateManager(userId, orgId, newManagerId);
+        }
+
+        if (currentManagerId != null) {
+            userClosureRepository.detachSubtree(userId);
+        }
+        if (newManagerId != null) {
+            userClosureRepository.attachSubtree(userId, newManagerId);
+        }
+        orgChartIndex.invalidateOrganization(orgId);
+        spanOfControlService.markStale();
+    }
+
+    private void validateManager(Long userId, Long orgId, Long managerId) {
+        if (managerId.equals(userId)) {
+            throw new IllegalArgumentException("User " + userId + " cannot report to themselves");
+        }
+        Long managerOrgId = userRepository.findOrganizationIdById(managerId)
+                .orElseThrow(() -> new IllegalArgumentException("Manager " + managerId + " does not exist"));
+        if (!Objects.equals(orgId, managerOrgId)) {
+            throw new IllegalArgumentException(
+                    "Manager " + managerId + " belongs to a different organization than User " + userId);
+        }
+        // Moving a user below one of their own subordinates would close a loop
+        if (userClosureRepository.isAncestor(userId, managerId)) {
+            throw new IllegalArgumentException(
+                    "User " + managerId + " reports to User " + userId + ", the move would create a cycle");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void removeUser(Long userId) {
+        Optional<Long> orgId = userRepository.findOrganizationIdById(userId);
+        orgId.ifPresent(userClosureRepository::lockOrganization);
+
+        detachUser(userId);
+
+        orgId.ifPresent(orgChartIndex::invalidateOrganization);
+        spanOfControlService.markStale();
+    }
+
+    /**
+     * Take a user out of the hierarchy: the user's direct reports move up to the user's manager with their
+     * subtrees, and every closure row of the user is dropped. The caller holds the organization's lock.
+     */
+    private void detachUser(Long userId) {
+        Long managerId = userClosureRepository.findManagerId(userId).orElse(null);
+        userClosureRepository.collapseSubtree(userId);
+        userRepository.reassignReports(userId, managerId);
+        userClosureRepository.deleteByUserId(userId);
+    }
 }
@@ -0,0 +1,397 @@
+package com.apptware.auth.services.impl;
+
+import com.apptware.auth.dto.user.UserImportErrorDTO;
+import com.apptware.auth.dto.user.UserImportResultDTO;
+import com.apptware.auth.dto.user.UserImportRowDTO;
+import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.User;
+import com.apptware.auth.models.projections.UserEmail;
+import com.apptware.auth.repositories.OrganizationRepository;
+import com.apptware.auth.repositories.UserRepository;
+import com.apptware.auth.services.UserClosureService;
+import com.apptware.auth.services.UserImportService;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+public class UserImportServiceImpl implements UserImportService {
+    // Errors listed in a result; further errors are only counted
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // Keys per set-wise lookup or update, keeps bind parameters well below driver limits
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final OrganizationRepository organizationRepository;
+    private final UserClosureService userClosureService;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ExecutorService hashingPool;
+
+    public UserImportServiceImpl(
+            UserRepository userRepository,
+            OrganizationRepository organizationRepository,
+            UserClosureService userClosureService,
+            PasswordEncoder passwordEncoder,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${auth.users.import.chunk-size:500}") int chunkSize,
+            @Value("${auth.users.import.hashing-threads:4}") int hashingThreads) {
+        this.userRepository = userRepository;
+        this.organizationRepository = organizationRepository;
+        this.userClosureService = userClosureService;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        // bcrypt is CPU-bound, so hashing gets its own pool sized to the cores it may use
+        this.hashingPool = Executors.newFixedThreadPool(hashingThreads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hashing");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    @Override
+    public UserImportResultDTO importUsers(Long orgId, Iterator<UserImportRowDTO> rows) {
+        long started = System.nanoTime();
+        ImportRun run = new ImportRun(orgId);
+
+        List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+        UserImportRowDTO row;
+        while ((row = nextRow(run, rows)) != null) {
+            chunk.add(new NumberedRow(run.rowsRead, row));
+            if (chunk.size() == chunkSize) {
+                importChunk(run, chunk);
+                chunk.clear();
+            }
+        }
+        importChunk(run, chunk);
+
+        linkManagers(run);
+        long closureRowsAdded = 0;
+        String hierarchyError = null;
+        if (run.usersCreated > 0) {
+            // Until autovacuum catches up the planner would still see the organization as (nearly) empty,
+            // and plan the closure joins for a handful of rows
+            transactionTemplate.executeWithoutResult(status -> userRepository.analyze());
+            try {
+                // Closure rows for the new users only, whatever state the rest of the organization is in
+                closureRowsAdded = userClosureService.addNewUsers(orgId, run.createdUserIds);
+            } catch (RuntimeException e) {
+                hierarchyError = e.getMessage();
+                run.error(0, null, "Users were created but could not be added to the reporting hierarchy, "
+                        + "rebuild the organization once the cause is fixed: " + hierarchyError);
+            }
+        }
+        return UserImportResultDTO.builder()
+                .organizationId(orgId)
+                .rowsRead(run.rowsRead)
+                .usersCreated(run.usersCreated)
+                .rowsRejected(run.rowsRejected)
+                .managersLinked(run.managersLinked)
+                .errors(run.errors)
+                .errorsTruncated(run.errorCount > run.errors.size())
+                .closureRowsAdded(closureRowsAdded)
+                .hierarchyError(hierarchyError)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                .build();
+    }
+
+    /**
+     * Read the next row, or null at the end of the input. The reader cannot resynchronize after a malformed
+     * row, so one that fails to read ends the input and is reported.
+     */
+    private static UserImportRowDTO nextRow(ImportRun run, Iterator<UserImportRowDTO> rows) {
+        try {
+            if (!rows.hasNext()) {
+                return null;
+            }
+            run.rowsRead++;
+            return rows.next();
+        } catch (RuntimeException e) {
+            run.rowsRejected++;
+            run.error(run.rowsRead, null, "Unreadable row, import stopped here: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Validate, hash and insert one chunk of rows in a single transaction. A failure is reported on each
+     * row of the chunk that was still pending, and the import carries on with the next chunk.
+     */
+    private void importChunk(ImportRun run, List<NumberedRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<NumberedRow> accepted = new ArrayList<>(chunk.size());
+        for (NumberedRow numbered : chunk) {
+            String problem = validate(numbered.row());
+            if (problem == null && !run.seenEmails.add(numbered.row().getEmail())) {
+                problem = "Email appears more than once in the import";
+            }
+            if (problem != null) {
+                run.reject(numbered, problem);
+            } else {
+                accepted.add(numbered);
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<User> users;
+        try {
+            users = saveAccepted(run, accepted);
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            accepted.forEach(numbered -> run.reject(numbered, "Could not be saved: " + cause.getMessage()));
+            return;
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        run.usersCreated += users.size();
+        users.forEach(user -> run.createdUserIds.add(user.getId()));
+        for (int i = 0; i < accepted.size(); i++) {
+            UserImportRowDTO row = accepted.get(i).row();
+            if (row.getReportingManagerEmail() != null || row.getReportingManagerId() != null) {
+                run.pendingLinks.add(new PendingLink(accepted.get(i).number(), row.getEmail(), users.get(i).getId(),
+                        row.getReportingManagerEmail(), row.getReportingManagerId()));
+            }
+        }
+    }
+
+    /**
+     * Drop the accepted rows whose email is already in use, then hash and insert the rest
+     *
+     * @return The inserted users, in the order of the rows left in accepted
+     */
+    private List<User> saveAccepted(ImportRun run, List<NumberedRow> accepted) {
+        Set<String> emailsInUse = new HashSet<>(userRepository.findEmailsIn(
+                accepted.stream().map(numbered -> numbered.row().getEmail()).toList()));
+        if (!emailsInUse.isEmpty()) {
+            accepted.removeIf(numbered -> {
+                boolean inUse = emailsInUse.contains(numbered.row().getEmail());
+                if (inUse) {
+                    run.reject(numbered, "Email is already in use");
+                }
+                return inUse;
+            });
+        }
+        if (accepted.isEmpty()) {
+            return List.of();
+        }
+
+        List<CompletableFuture<String>> hashes = accepted.stream()
+                .map(numbered -> numbered.row().getPassword() == null || numbered.row().getPassword().isEmpty()
+                        ? CompletableFuture.<String>completedFuture(null)
+                        : CompletableFuture.supplyAsync(
+                                () -> passwordEncoder.encode(numbered.row().getPassword()), hashingPool))
+                .toList();
+
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            UserImportRowDTO row = accepted.get(i).row();
+            users.add(User.builder()
+                    .name(row.getName())
+                    .email(row.getEmail())
+                    .passwordHash(hashes.get(i).join())
+                    .isAdmin(Boolean.TRUE.equals(row.getIsAdmin()))
+                    .isActive(!Boolean.FALSE.equals(row.getIsActive()))
+                    .tokenVersion(0)
+                    .build());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Organization organization = organizationRepository.getReferenceById(run.orgId);
+            users.forEach(user -> user.setOrganization(organization));
+            userRepository.saveAll(users);
+        });
+        return users;
+    }
+
+    private String validate(UserImportRowDTO row) {
+        Set<ConstraintViolation<UserImportRowDTO>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (row.getReportingManagerEmail() != null && row.getReportingManagerId() != null) {
+            return "Give either a reporting manager email or ID, not both";
+        }
+        if (row.getEmail().equals(row.getReportingManagerEmail())) {
+            return "A user cannot report to themselves";
+        }
+        return null;
+    }
+
+    /**
+     * Resolve every pending reporting manager within the organization and set them with set-wise updates.
+     * Users whose manager cannot be found, or whose link would close a reporting cycle, are kept without
+     * a manager and reported.
+     */
+    private void linkManagers(ImportRun run) {
+        // All links are resolved before any is written, so a cycle spanning lookup chunks is still found
+        List<PendingLink> resolvedLinks = new ArrayList<>(run.pendingLinks.size());
+        Map<Long, Long> managerByUser = new HashMap<>();
+        for (int from = 0; from < run.pendingLinks.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<PendingLink> links = run.pendingLinks.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, run.pendingLinks.size()));
+
+            Set<String> managerEmails = links.stream()
+                    .map(PendingLink::managerEmail)
+                    .filter(email -> email != null)
+                    .collect(Collectors.toSet());
+            Map<String, Long> idsByEmail = new HashMap<>();
+            if (!managerEmails.isEmpty()) {
+                for (UserEmail user : userRepository.findUserEmailsByOrganizationIdAndEmailIn(run.orgId, managerEmails)) {
+                    idsByEmail.put(user.getEmail(), user.getId());
+                }
+            }
+            Set<Long> managerIds = links.stream()
+                    .map(PendingLink::managerId)
+                    .filter(id -> id != null)
+                    .collect(Collectors.toSet());
+            Set<Long> knownManagerIds = managerIds.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(userRepository.findIdsByOrganizationIdAndIdIn(run.orgId, managerIds));
+
+            for (PendingLink link : links) {
+                Long managerId = link.managerEmail() != null
+                        ? idsByEmail.get(link.managerEmail())
+                        : (knownManagerIds.contains(link.managerId()) ? link.managerId() : null);
+                if (managerId == null || managerId.equals(link.userId())) {
+                    run.error(link.row(), link.email(), "Reporting manager " + link.describeManager()
+                            + " is not a user of the organization, user created without a manager");
+                    continue;
+                }
+                resolvedLinks.add(link);
+                managerByUser.put(link.userId(), managerId);
+            }
+        }
+
+        Set<Long> cycleUserIds = findCycleUserIds(managerByUser);
+        if (!cycleUserIds.isEmpty()) {
+            resolvedLinks.removeIf(link -> {
+                boolean inCycle = cycleUserIds.contains(link.userId());
+                if (inCycle) {
+                    run.error(link.row(), link.email(), "Reporting manager " + link.describeManager()
+                            + " would close a reporting cycle, user created without a manager");
+                }
+                return inCycle;
+            });
+        }
+
+        for (int from = 0; from < resolvedLinks.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<PendingLink> links = resolvedLinks.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, resolvedLinks.size()));
+            Long[] userIds = links.stream().map(PendingLink::userId).toArray(Long[]::new);
+            Long[] resolvedManagerIds = links.stream().map(link -> managerByUser.get(link.userId())).toArray(Long[]::new);
+            transactionTemplate.executeWithoutResult(
+                    status -> userRepository.updateReportingManagers(userIds, resolvedManagerIds));
+            run.managersLinked += links.size();
+        }
+    }
+
+    /**
+     * Find the users on a reporting cycle. Only imported users have links here and every user has at most
+     * one manager, so following the links from each user either leaves the map or comes back onto its own path.
+     *
+     * @param managerByUser Reporting manager ID by user ID
+     * @return The IDs of the users whose links form a cycle; users merely reporting into a cycle are not included
+     */
+    private static Set<Long> findCycleUserIds(Map<Long, Long> managerByUser) {
+        Set<Long> cycleUserIds = new HashSet<>();
+        Set<Long> visited = new HashSet<>();
+        for (Long start : managerByUser.keySet()) {
+            Map<Long, Integer> positionOnPath = new HashMap<>();
+            List<Long> path = new ArrayList<>();
+            Long userId = start;
+            while (userId != null && !visited.contains(userId) && !positionOnPath.containsKey(userId)) {
+                positionOnPath.put(userId, path.size());
+                path.add(userId);
+                userId = managerByUser.get(userId);
+            }
+            if (userId != null && positionOnPath.containsKey(userId)) {
+                cycleUserIds.addAll(path.subList(positionOnPath.get(userId), path.size()));
+            }
+            visited.addAll(path);
+        }
+        return cycleUserIds;
+    }
+
+    private record NumberedRow(long number, UserImportRowDTO row) {
+    }
+
+    private record PendingLink(long row, String email, Long userId, String managerEmail, Long managerId) {
+        private Object describeManager() {
+            return managerEmail != null ? managerEmail : managerId;
+        }
+    }
+
+    /**
+     * Running state of one import
+     */
+    private static final class ImportRun {
+        private final Long orgId;
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<PendingLink> pendingLinks = new ArrayList<>();
+        private final List<Long> createdUserIds = new ArrayList<>();
+        private final List<UserImportErrorDTO> errors = new ArrayList<>();
+        private long errorCount;
+        private long rowsRead;
+        private long usersCreated;
+        private long rowsRejected;
+        private long managersLinked;
+
+        private ImportRun(Long orgId) {
+            this.orgId = orgId;
+        }
+
+        private void reject(NumberedRow numbered, String message) {
+            rowsRejected++;
+            error(numbered.number(), numbered.row().getEmail(), message);
+        }
+
+        private void error(long row, String email, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(UserImportErrorDTO.builder()
+                        .row(row)
+                        .email(email)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
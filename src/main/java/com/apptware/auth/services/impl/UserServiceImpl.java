@@ -2,21 +2,27 @@ package com.apptware.auth.services.impl;
 
 import com.apptware.auth.models.Organization;
 import com.apptware.auth.models.User;
+import com.apptware.auth.models.projections.UserBrief;
 import com.apptware.auth.repositories.UserRepository;
+import com.apptware.auth.services.UserClosureService;
 import com.apptware.auth.services.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserClosureService userClosureService;
 
     @Override
     public List<User> findAll() {
@@ -45,11 +51,22 @@ public class UserServiceImpl implements UserService {
         if (user.getPasswordHash() != null && !user.getPasswordHash().isEmpty() && !user.getPasswordHash().startsWith("$2a$")) {
             user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
         }
-        return userRepository.save(user);
+        Long previousOrganizationId = user.getStoredOrganizationId();
+        User savedUser = userRepository.save(user);
+        
+        // Keep the reporting hierarchy's closure rows in the same transaction as the user row
+        if (previousOrganizationId != null && !previousOrganizationId.equals(savedUser.getOrganizationId())) {
+            userClosureService.moveToOrganization(savedUser.getId(), previousOrganizationId, savedUser.getReportingManagerId());
+        } else {
+            userClosureService.syncReportingManager(savedUser.getId(), savedUser.getReportingManagerId());
+        }
+        return savedUser;
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
+        userClosureService.removeUser(id);
         userRepository.deleteById(id);
     }
 
@@ -62,4 +79,27 @@ public class UserServiceImpl implements UserService {
     public List<User> findAdminUsers() {
         return userRepository.findByIsAdminTrue();
     }
+
+    @Override
+    public List<UserBrief> findBriefsByOrganizationId(Long orgId) {
+        return userRepository.findBriefsByOrganizationId(orgId);
+    }
+
+    @Override
+    public List<UserBrief> findAdminBriefs() {
+        return userRepository.findAdminBriefs();
+    }
+
+    @Override
+    public List<UserBrief> findBriefsAfter(long after, int limit) {
+        return userRepository.findBriefsAfter(after, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBriefs(Consumer<UserBrief> consumer) {
+        try (Stream<UserBrief> rows = userRepository.streamBriefs()) {
+            rows.forEach(consumer);
+        }
+    }
 }
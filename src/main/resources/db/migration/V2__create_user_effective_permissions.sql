@@ -0,0 +1,24 @@
+-- Materialized effective permissions: one row per (user, permission) granted directly,
+-- through a role or through a group. source_count is the number of grant paths, so a row
+-- only disappears once the last path granting it is removed.
+CREATE TABLE IF NOT EXISTS user_effective_permissions (
+    user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    permission_id BIGINT NOT NULL REFERENCES permissions (id) ON DELETE CASCADE,
+    source_count INTEGER NOT NULL,
+    PRIMARY KEY (user_id, permission_id)
+);
+
+-- Backfill from the existing grants
+INSERT INTO user_effective_permissions (user_id, permission_id, source_count)
+SELECT grants.user_id, grants.permission_id, COUNT(*)
+FROM (
+    SELECT up.user_id, up.permission_id FROM user_permissions up
+    UNION ALL
+    SELECT ur.user_id, rp.permission_id FROM user_roles ur
+    JOIN role_permissions rp ON rp.role_id = ur.role_id
+    UNION ALL
+    SELECT ug.user_id, gp.permission_id FROM user_groups ug
+    JOIN group_permissions gp ON gp.group_id = ug.group_id
+) grants
+GROUP BY grants.user_id, grants.permission_id
+ON CONFLICT (user_id, permission_id) DO NOTHING;
@@ -0,0 +1,8 @@
+-- Numeric suffixes of generated permission IDs ("perm_<n>"). Each nextval reserves a block of
+-- 50 values that the application hands out from memory, so the increment must match its block size.
+CREATE SEQUENCE IF NOT EXISTS permission_id_seq START WITH 1000 INCREMENT BY 50;
+
+-- Start above every suffix handed out by the old random generator (perm_100..perm_999)
+SELECT setval('permission_id_seq', GREATEST(1000, COALESCE(MAX(CAST(SUBSTRING(permission_id FROM 6) AS BIGINT)) + 1, 1000)), false)
+FROM permissions
+WHERE permission_id ~ '^perm_[0-9]+$';
@@ -0,0 +1,29 @@
+-- user_closure holds one row per (ancestor, descendant) pair, including a depth-0 self row per user.
+-- Rows are maintained incrementally with set-based statements keyed on these indexes.
+DELETE FROM user_closure a
+USING user_closure b
+WHERE a.ancestor_id = b.ancestor_id
+  AND a.descendant_id = b.descendant_id
+  AND a.id > b.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_closure_ancestor_descendant
+    ON user_closure (ancestor_id, descendant_id);
+
+CREATE INDEX IF NOT EXISTS ix_user_closure_descendant_depth
+    ON user_closure (descendant_id, depth);
+
+-- Backfill from users.reporting_manager_id; the path array stops walks around reporting cycles
+INSERT INTO user_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE chain (ancestor_id, descendant_id, depth, path) AS (
+    SELECT u.id, u.id, 0, ARRAY[u.id]
+    FROM users u
+    UNION ALL
+    SELECT m.reporting_manager_id, c.descendant_id, c.depth + 1, c.path || m.reporting_manager_id
+    FROM chain c
+    JOIN users m ON m.id = c.ancestor_id
+    JOIN users p ON p.id = m.reporting_manager_id
+    WHERE NOT m.reporting_manager_id = ANY (c.path)
+)
+SELECT ancestor_id, descendant_id, depth
+FROM chain
+ON CONFLICT (ancestor_id, descendant_id) DO NOTHING;
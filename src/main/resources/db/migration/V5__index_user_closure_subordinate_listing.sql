@@ -0,0 +1,4 @@
+-- Subordinate listings walk one ancestor's rows in (depth, descendant_id) order,
+-- so a page is a single index range scan
+CREATE INDEX IF NOT EXISTS ix_user_closure_ancestor_depth_descendant
+    ON user_closure (ancestor_id, depth, descendant_id);
@@ -0,0 +1,7 @@
+-- Management chains and common-manager lookups walk one descendant's rows in depth order and only
+-- need ancestor_id, so carrying it in the index makes them index-only scans.
+-- The (descendant_id, depth) index is a prefix of this one and is dropped.
+CREATE INDEX IF NOT EXISTS ix_user_closure_descendant_depth_ancestor
+    ON user_closure (descendant_id, depth, ancestor_id);
+
+DROP INDEX IF EXISTS ix_user_closure_descendant_depth;
@@ -0,0 +1,33 @@
+-- Span-of-control figures for HR dashboards, aggregated from user_closure once per refresh so that
+-- a dashboard read costs one row per manager (or per level) instead of a walk over every subtree.
+-- Both views carry a unique index so they can be refreshed CONCURRENTLY without blocking readers.
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS manager_span_of_control AS
+SELECT m.org_id                              AS organization_id,
+       uc.ancestor_id                        AS manager_id,
+       COUNT(*) FILTER (WHERE uc.depth = 1)  AS direct_reports,
+       COUNT(*)                              AS total_reports,
+       MAX(uc.depth)                         AS levels_below
+FROM user_closure uc
+JOIN users m ON m.id = uc.ancestor_id
+WHERE uc.depth > 0
+GROUP BY m.org_id, uc.ancestor_id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_manager_span_of_control_manager
+    ON manager_span_of_control (manager_id);
+
+CREATE INDEX IF NOT EXISTS ix_manager_span_of_control_organization_manager
+    ON manager_span_of_control (organization_id, manager_id);
+
+-- A user's level is the length of their management chain, 0 for top-level users
+CREATE MATERIALIZED VIEW IF NOT EXISTS organization_level_headcount AS
+SELECT u.org_id      AS organization_id,
+       l.level       AS level,
+       COUNT(*)      AS headcount
+FROM (SELECT descendant_id, MAX(depth) AS level FROM user_closure GROUP BY descendant_id) l
+JOIN users u ON u.id = l.descendant_id
+WHERE u.org_id IS NOT NULL
+GROUP BY u.org_id, l.level;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_organization_level_headcount_organization_level
+    ON organization_level_headcount (organization_id, level);
@@ -0,0 +1,22 @@
+-- Entity IDs are allocated by Hibernate in blocks of 50 from the existing serial sequences (pooled
+-- optimizer), so inserts no longer need a round-trip per row to learn their ID and can be batched.
+-- Each nextval value v hands out the block (v - 50, v]; the sequences are moved one block past the
+-- current maximum so no existing ID is handed out again. Column defaults keep using the same sequences,
+-- so rows inserted by SQL get a value no block overlaps.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users));
+
+ALTER SEQUENCE organizations_id_seq INCREMENT BY 50;
+SELECT setval('organizations_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM organizations));
+
+ALTER SEQUENCE roles_id_seq INCREMENT BY 50;
+SELECT setval('roles_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM roles));
+
+ALTER SEQUENCE groups_id_seq INCREMENT BY 50;
+SELECT setval('groups_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM groups));
+
+ALTER SEQUENCE permissions_id_seq INCREMENT BY 50;
+SELECT setval('permissions_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM permissions));
+
+-- user_closure_id_seq stays at INCREMENT BY 1: closure rows are only ever inserted by native SQL through the
+-- column default, so a block size of 50 would skip 49 IDs per row without saving any round-trip.
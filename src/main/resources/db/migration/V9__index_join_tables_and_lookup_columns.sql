@@ -0,0 +1,19 @@
+-- Indexes the repository queries rely on, built without blocking writes. CREATE INDEX CONCURRENTLY
+-- cannot run inside a transaction, so Flyway runs this migration non-transactionally and it holds
+-- nothing but these statements. IF NOT EXISTS makes a rerun after a partial failure pick up where
+-- it stopped (an INVALID leftover index must be dropped first, see RequiredIndexCheck).
+
+-- Join tables, in the column order their primary key does not already serve: one order answers
+-- "what does this principal hold", the other "who holds this"
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_user_permissions_user_permission ON user_permissions (user_id, permission_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_user_roles_user_role ON user_roles (user_id, role_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_user_groups_user_group ON user_groups (user_id, group_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_role_permissions_role_permission ON role_permissions (role_id, permission_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_group_permissions_permission_group ON group_permissions (permission_id, group_id);
+
+-- Tenant and lookup columns
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_users_org_id ON users (org_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_users_email ON users (email);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_users_reporting_manager_id ON users (reporting_manager_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_roles_org_id_name ON roles (org_id, name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_groups_org_id_name ON groups (org_id, name);
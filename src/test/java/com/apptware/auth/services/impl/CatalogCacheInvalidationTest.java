@@ -0,0 +1,118 @@
+package com.apptware.auth.services.impl;
+
+import com.apptware.auth.models.Organization;
+import com.apptware.auth.models.Permission;
+import com.apptware.auth.models.Role;
+import com.apptware.auth.repositories.OrganizationRepository;
+import com.apptware.auth.repositories.RoleRepository;
+import com.apptware.auth.services.PermissionAssignmentService;
+import com.apptware.auth.services.PermissionService;
+import com.apptware.auth.services.RoleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CatalogCacheInvalidationTest {
+    private static final String ROLE_PERMISSIONS = Role.class.getName() + ".permissions";
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private RoleService roleService;
+    @Autowired
+    private PermissionService permissionService;
+    @Autowired
+    private PermissionAssignmentService permissionAssignmentService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Organization organization;
+    private Role role;
+    private Permission first;
+    private Permission second;
+
+    @BeforeEach
+    void createCatalog() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        String suffix = Long.toString(System.nanoTime());
+        organization = organizationRepository.save(Organization.builder()
+                .name("catalog-cache-test-" + suffix)
+                .build());
+        role = roleService.save(Role.builder()
+                .name("catalog-cache-test")
+                .organization(organization)
+                .build());
+        first = permissionService.save(Permission.builder()
+                .action("read")
+                .resources(new String[] {"catalog-cache-test-" + suffix})
+                .build());
+        second = permissionService.save(Permission.builder()
+                .action("write")
+                .resources(new String[] {"catalog-cache-test-" + suffix})
+                .build());
+    }
+
+    @AfterEach
+    void deleteCatalog() {
+        roleService.deleteById(role.getId());
+        for (Permission permission : new Permission[] {first, second}) {
+            if (permissionService.findById(permission.getId()).isPresent()) {
+                permissionService.deleteById(permission.getId());
+            }
+        }
+        organizationRepository.deleteById(organization.getId());
+    }
+
+    @Test
+    void cachedRolePermissionsFollowEveryWrite() {
+        permissionAssignmentService.assignPermissionsToRole(role, Set.of(first));
+        assertEquals(Set.of(first.getId()), rolePermissionIds());
+
+        long hitsBefore = rolePermissionHits();
+        assertEquals(Set.of(first.getId()), rolePermissionIds());
+        assertTrue(rolePermissionHits() > hitsBefore, "The role's permission set should be served from the cache");
+
+        permissionAssignmentService.assignPermissionsToRole(role, Set.of(second));
+        assertEquals(Set.of(first.getId(), second.getId()), rolePermissionIds());
+
+        permissionAssignmentService.removePermissionsFromRole(role, Set.of(first));
+        assertEquals(Set.of(second.getId()), rolePermissionIds());
+
+        permissionService.deleteById(second.getId());
+        assertEquals(Set.of(), rolePermissionIds());
+    }
+
+    /**
+     * Load the role's permissions in a transaction of their own, so they come from (and go into) the cache
+     */
+    private Set<Long> rolePermissionIds() {
+        return transactionTemplate.execute(status -> roleRepository.findById(role.getId()).orElseThrow()
+                .getPermissions().stream()
+                .map(Permission::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    private long rolePermissionHits() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getDomainDataRegionStatistics(ROLE_PERMISSIONS)
+                .getHitCount();
+    }
+}
@@ -0,0 +1,51 @@
+package com.apptware.auth.services.impl;
+
+import com.apptware.auth.services.impl.OrgChartIndexImpl.EulerTourChart;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrgChartIndexImplTest {
+
+    // 1 -> {2, 3}, 2 -> {4, 5}, 6 top-level, 7 <-> 8 form a reporting cycle, 9 reports to a user outside the org
+    private final EulerTourChart chart = EulerTourChart.build(
+            new long[] {1, 2, 3, 4, 5, 6, 7, 8, 9},
+            new long[] {0, 1, 1, 2, 2, 0, 8, 7, 42});
+
+    @Test
+    void ancestryFollowsTheReportingChain() {
+        assertTrue(chart.isAncestor(1L, 4L));
+        assertTrue(chart.isAncestor(2L, 5L));
+        assertTrue(chart.isAncestor(3L, 3L));
+        assertFalse(chart.isAncestor(4L, 1L));
+        assertFalse(chart.isAncestor(3L, 4L));
+        assertFalse(chart.isAncestor(6L, 2L));
+    }
+
+    @Test
+    void subordinateCountsAreIntervalWidths() {
+        assertEquals(4, chart.countSubordinates(1L));
+        assertEquals(2, chart.countSubordinates(2L));
+        assertEquals(0, chart.countSubordinates(5L));
+        assertEquals(0, chart.countSubordinates(9L));
+    }
+
+    @Test
+    void colleaguesShareAManager() {
+        assertTrue(chart.areColleagues(2L, 3L));
+        assertTrue(chart.areColleagues(4L, 5L));
+        assertFalse(chart.areColleagues(3L, 4L));
+        assertFalse(chart.areColleagues(1L, 6L));
+    }
+
+    @Test
+    void usersInACycleAreNotPlaced() {
+        assertFalse(chart.contains(7L));
+        assertFalse(chart.contains(8L));
+        assertFalse(chart.isAncestor(7L, 8L));
+        assertTrue(chart.contains(9L));
+        assertFalse(chart.contains(100L));
+    }
+}